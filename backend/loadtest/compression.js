@@ -0,0 +1,55 @@
+// k6 comparison of a 100-contact page sent with and without gzip.
+//
+// Both scenarios run at once against the same backend, one asking for identity and one
+// for gzip, so they see the same server load:
+//   SECURITY_RATELIMIT_ENABLED=false SPRING_PROFILES_ACTIVE=local ./mvnw spring-boot:run
+//   k6 run -e EMAIL=user1@example.com -e PASSWORD=password loadtest/compression.js
+//
+// The summary lists data_received and http_req_duration p(99) per scenario (the
+// thresholds below exist only to break them out). The gain grows with link latency and
+// shrinks on localhost, so run it from a throttled client to see the mobile case.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+const scenario = (encoding) => ({
+  executor: 'constant-vus',
+  vus: 20,
+  duration: '1m',
+  env: { ENCODING: encoding },
+  tags: { encoding },
+});
+
+export const options = {
+  scenarios: {
+    identity: scenario('identity'),
+    gzip: scenario('gzip'),
+  },
+  thresholds: {
+    'http_req_duration{encoding:identity}': ['p(99)>=0'],
+    'http_req_duration{encoding:gzip}': ['p(99)>=0'],
+    'data_received{encoding:identity}': ['count>=0'],
+    'data_received{encoding:gzip}': ['count>=0'],
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+  const res = http.post(`${BASE_URL}/api/users/login`,
+    JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' } });
+  check(res, { 'logged in': (r) => r.status === 200 });
+  return { token: res.json('token') };
+}
+
+export default function (data) {
+  const page = Math.floor(Math.random() * 5);
+  const res = http.get(`${BASE_URL}/api/users/contacts?page=${page}&size=100&sortBy=firstName&sortDir=asc`, {
+    headers: { Authorization: `Bearer ${data.token}`, 'Accept-Encoding': __ENV.ENCODING },
+  });
+  check(res, {
+    'status 200': (r) => r.status === 200,
+    'encoded as asked': (r) => (r.headers['Content-Encoding'] || 'identity') === __ENV.ENCODING,
+  });
+}
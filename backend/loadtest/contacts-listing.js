@@ -0,0 +1,65 @@
+// k6 load test for the contacts listing, used to compare virtual and platform threads.
+//
+// Start the backend once per mode and run the same script against each:
+//   SPRING_THREADS_VIRTUAL_ENABLED=true  ./mvnw spring-boot:run
+//   SPRING_THREADS_VIRTUAL_ENABLED=false ./mvnw spring-boot:run
+//   k6 run -e EMAIL=user@example.com -e PASSWORD=secret loadtest/contacts-listing.js
+//
+// For a reproducible store without SQL Server, add SPRING_PROFILES_ACTIVE=local: the
+// embedded database is seeded with the same users and contacts on every start (see
+// application-local.properties), so run with -e EMAIL=user1@example.com -e PASSWORD=password.
+//
+// Every VU shares one login, so also start the backend with SECURITY_RATELIMIT_ENABLED=false,
+// otherwise nearly all requests get 429 from the per-user rate limit.
+//
+// SERVER_LATENCY_MS is sent as X-Simulated-Latency-Ms, which the local profile honours by
+// blocking the request thread that long before handling the request (SimulatedLatencyFilter),
+// as a slow downstream call would. Each in-flight request then holds a server thread for that
+// period, so with platform threads the Tomcat pool (200 by default) saturates once more than
+// 200 requests are in flight; virtual threads unmount while waiting. This needs the local
+// profile in both runs. THINK_TIME_MS is client-side pause between requests; it holds no
+// server thread. Compare http_req_duration p95/p99 and http_reqs between the two runs.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const SERVER_LATENCY_MS = Number(__ENV.SERVER_LATENCY_MS || 200);
+const THINK_TIME_MS = Number(__ENV.THINK_TIME_MS || 100);
+
+export const options = {
+  scenarios: {
+    ramp: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: 200 },
+        { duration: '1m', target: 1000 },
+        { duration: '1m', target: 2000 },
+        { duration: '30s', target: 0 },
+      ],
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+export function setup() {
+  const res = http.post(`${BASE_URL}/api/users/login`,
+    JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' } });
+  check(res, { 'logged in': (r) => r.status === 200 });
+  return { token: res.json('token') };
+}
+
+export default function (data) {
+  const page = Math.floor(Math.random() * 20);
+  const res = http.get(`${BASE_URL}/api/users/contacts?page=${page}&size=10&sortBy=firstName&sortDir=asc`, {
+    headers: {
+      Authorization: `Bearer ${data.token}`,
+      'X-Simulated-Latency-Ms': String(SERVER_LATENCY_MS),
+    },
+  });
+  check(res, { 'status 200': (r) => r.status === 200 });
+  sleep(THINK_TIME_MS / 1000);
+}
@@ -0,0 +1,45 @@
+package com.example.contactmanager.benchmark;
+
+import com.example.contactmanager.model.Contact;
+import com.example.contactmanager.model.EmailAddress;
+import com.example.contactmanager.model.PhoneNumber;
+
+final class BenchmarkFixtures {
+
+    // Body of POST /api/contacts as the frontend sends it
+    static final String CONTACT_JSON = """
+            {"firstName":"Ada","lastName":"Lovelace","title":"Analyst",
+             "emails":[{"label":"work","email":"ada@example.com"},{"label":"home","email":"ada@home.example.com"},
+                       {"label":"other","email":"ada.l@example.org"},{"label":"work","email":"a.lovelace@example.net"},
+                       {"label":"home","email":"countess@example.com"}],
+             "phoneNumbers":[{"label":"work","number":"+44 20 7946 0001"},{"label":"home","number":"+44 20 7946 0002"},
+                             {"label":"mobile","number":"+44 7700 900001"},{"label":"other","number":"+44 7700 900002"},
+                             {"label":"work","number":"+44 20 7946 0003"}]}
+            """;
+
+    private BenchmarkFixtures() {
+    }
+
+    static Contact contact(int emails, int phones) {
+        Contact contact = new Contact();
+        contact.setId(1L);
+        contact.setFirstName("Ada");
+        contact.setLastName("Lovelace");
+        contact.setTitle("Analyst");
+        for (int i = 0; i < emails; i++) {
+            EmailAddress email = new EmailAddress();
+            email.setId((long) i + 1);
+            email.setLabel(i % 2 == 0 ? "work" : "home");
+            email.setEmail("ada" + i + "@example.com");
+            contact.addEmail(email);
+        }
+        for (int i = 0; i < phones; i++) {
+            PhoneNumber phone = new PhoneNumber();
+            phone.setId((long) i + 1);
+            phone.setLabel(i % 2 == 0 ? "work" : "mobile");
+            phone.setNumber("+44 20 7946 000" + i);
+            contact.addPhoneNumber(phone);
+        }
+        return contact;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.contactmanager.benchmark;
+
+import com.example.contactmanager.dto.ContactMapper;
+import com.example.contactmanager.dto.ContactPageResponse;
+import com.example.contactmanager.dto.ContactResponse;
+import com.example.contactmanager.model.Contact;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A 100-contact page of GET /api/users/contacts, as sent with and without gzip, over a
+ * modeled link: serialization, compression (the default deflate level, as Tomcat uses),
+ * then the body's transfer time at {@code linkKbps}. Sample mode, so the report has p99.
+ * Bytes on the wire per variant are printed at setup. The link model is bandwidth only,
+ * no RTT or TCP slow start, which if anything understates the gain on mobile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 4)
+@Fork(1)
+public class CompressionBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    // Roughly 3G, and a decent 4G link
+    @Param({"1500", "20000"})
+    public int linkKbps;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new BlackbirdModule());
+    private ContactPageResponse<ContactResponse> page;
+
+    @Setup
+    public void setUp() throws IOException {
+        ContactMapper contactMapper = Mappers.getMapper(ContactMapper.class);
+        List<ContactResponse> contacts = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Contact contact = BenchmarkFixtures.contact(2, 2);
+            contact.setId((long) i + 1);
+            contact.setFirstName("Ada" + i);
+            contacts.add(contactMapper.toResponse(contact));
+        }
+        page = ContactPageResponse.offset(contacts, 0, 10, 1000, PAGE_SIZE, true, false);
+
+        byte[] json = objectMapper.writeValueAsBytes(page);
+        System.out.printf("%n100-contact page: %d bytes identity, %d bytes gzip%n", json.length, gzip(json).length);
+    }
+
+    @Benchmark
+    public int sendPage() throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(page);
+        if (encoding.equals("gzip")) {
+            body = gzip(body);
+        }
+        // Transfer time of the body at the link's bandwidth
+        LockSupport.parkNanos(body.length * 8L * 1_000_000L / linkKbps);
+        return body.length;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
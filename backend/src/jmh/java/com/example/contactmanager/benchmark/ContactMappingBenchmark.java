@@ -0,0 +1,53 @@
+package com.example.contactmanager.benchmark;
+
+import com.example.contactmanager.dto.ContactRequest;
+import com.example.contactmanager.model.Contact;
+import com.example.contactmanager.service.ContactMerger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request body to Contact mapping done by createContact, with and without the JSON parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactMappingBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ContactMerger contactMerger = new ContactMerger();
+    private ContactRequest body;
+
+    @Setup
+    public void setUp() throws Exception {
+        body = objectMapper.readValue(BenchmarkFixtures.CONTACT_JSON, ContactRequest.class);
+    }
+
+    @Benchmark
+    public Contact mapBody() {
+        Contact contact = new Contact();
+        contactMerger.apply(contact, body, false);
+        return contact;
+    }
+
+    @Benchmark
+    public Contact parseAndMapBody() throws Exception {
+        Contact contact = new Contact();
+        contactMerger.apply(contact, objectMapper.readValue(BenchmarkFixtures.CONTACT_JSON, ContactRequest.class), false);
+        return contact;
+    }
+}
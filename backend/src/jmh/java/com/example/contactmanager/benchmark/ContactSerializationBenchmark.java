@@ -0,0 +1,53 @@
+package com.example.contactmanager.benchmark;
+
+import com.example.contactmanager.dto.ContactMapper;
+import com.example.contactmanager.dto.ContactResponse;
+import com.example.contactmanager.model.Contact;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a contact with 5 emails and 5 phone numbers: the entity as it
+ * used to be returned, and the mapped response with and without Blackbird.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper blackbirdMapper = new ObjectMapper().registerModule(new BlackbirdModule());
+    private final ContactMapper contactMapper = Mappers.getMapper(ContactMapper.class);
+    private final Contact contact = BenchmarkFixtures.contact(5, 5);
+
+    @Benchmark
+    public byte[] serializeContact() throws Exception {
+        return objectMapper.writeValueAsBytes(contact);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(contactMapper.toResponse(contact));
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeResponseBlackbird() throws Exception {
+        ContactResponse response = contactMapper.toResponse(contact);
+        return blackbirdMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.contactmanager.benchmark;
+
+import com.example.contactmanager.security.JwtFilter;
+import com.example.contactmanager.security.JwtUtil;
+import com.example.contactmanager.security.UserLookupCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing, token verification with and without JwtUtil's verified-token cache, and the
+ * per-request authentication filter. The filter reuses one token, so it measures the cached
+ * path a returning client takes; verifyUncached is what the first request with a token pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtFilter jwtFilter;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        // Tokens carry the user id, so the lookup cache is never consulted
+        jwtFilter = new JwtFilter(jwtUtil, new UserLookupCache(null, 1, Duration.ofMinutes(1)),
+                new SimpleMeterRegistry());
+        token = jwtUtil.generateToken("ada@example.com", 42L);
+        // Built the way JwtUtil builds its own, but with nothing in front of it
+        parser = Jwts.parserBuilder().setSigningKey(jwtUtil.getKey()).build();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("ada@example.com", 42L);
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyCached() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Object filterRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/contacts");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        jwtFilter.doFilter(request, response, new MockFilterChain());
+
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
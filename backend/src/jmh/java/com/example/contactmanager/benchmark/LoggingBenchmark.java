@@ -0,0 +1,125 @@
+package com.example.contactmanager.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.contactmanager.logging.MaskingConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost to a request thread of writing one log line with System.out versus the logging
+ * pipeline, with 8 threads contending. Output goes to a null stream so only formatting and
+ * locking are measured. The async appender blocks when its queue is full, like ASYNC_WARN,
+ * so its score is the sustained rate the background worker keeps up with, not the cost of
+ * an enqueue that might have been dropped. The pattern masks the message like %mask does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class LoggingBenchmark {
+
+    private static final String URL = "http://localhost:8080/api/users/contacts";
+
+    // Not a constant, so the System.out line is concatenated per call like the log message
+    private long userId = 42L;
+
+    private PrintStream console;
+    private LoggerContext context;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+
+    @Setup
+    public void setUp() {
+        console = new PrintStream(OutputStream.nullOutputStream(), true);
+        context = new LoggerContext();
+        // What the conversionRule in logback-spring.xml registers
+        context.putObject(CoreConstants.PATTERN_RULE_REGISTRY,
+                new HashMap<>(Map.of("mask", MaskingConverter.class.getName())));
+
+        syncLogger = logger("sync", target("sync-target"));
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("async");
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(false);
+        async.addAppender(target("async-target"));
+        async.start();
+        asyncLogger = logger("async", async);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void systemOut() {
+        console.println("Authenticated user " + userId + " for " + URL);
+    }
+
+    @Benchmark
+    public void logSync() {
+        syncLogger.info("Authenticated user {} for {}", userId, URL);
+    }
+
+    @Benchmark
+    public void logAsync() {
+        asyncLogger.info("Authenticated user {} for {}", userId, URL);
+    }
+
+    @Benchmark
+    public void debugDisabled() {
+        asyncLogger.debug("Authenticated user {} for {}", userId, URL);
+    }
+
+    private Logger logger(String name, ch.qos.logback.core.Appender<ILoggingEvent> appender) {
+        Logger logger = context.getLogger(name);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        return logger;
+    }
+
+    private OutputStreamAppender<ILoggingEvent> target(String name) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %5p [%X{requestId:-}] %logger : %mask%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+}
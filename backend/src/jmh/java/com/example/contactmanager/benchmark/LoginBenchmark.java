@@ -0,0 +1,91 @@
+package com.example.contactmanager.benchmark;
+
+import com.example.contactmanager.config.SecurityConfig;
+import com.example.contactmanager.security.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password verification at a given BCrypt cost: a single login, and a burst of
+ * concurrent logins (one virtual thread each, as request threads are) drained through
+ * the bounded hashing pool. The burst time is what the last user of a login storm waits.
+ * Pick the cost with -Djmh.args="LoginBenchmark -p strength=12".
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10", "12"})
+    public int strength;
+
+    @Param({"200"})
+    public int burstSize;
+
+    private PasswordHasher hasher;
+    private ExecutorService requestThreads;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        // The encoder the application uses
+        PasswordEncoder encoder = SecurityConfig.passwordEncoder(strength);
+        hasher = new PasswordHasher(encoder, new SimpleMeterRegistry(), 0, burstSize, Duration.ofMinutes(1));
+        requestThreads = Executors.newVirtualThreadPerTaskExecutor();
+        storedHash = encoder.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestThreads.shutdownNow();
+        hasher.shutdown();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean singleLogin() {
+        return hasher.matches(PASSWORD, storedHash);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 10)
+    public int loginBurst() throws Exception {
+        List<Future<Boolean>> logins = new ArrayList<>(burstSize);
+        for (int i = 0; i < burstSize; i++) {
+            logins.add(requestThreads.submit(() -> hasher.matches(PASSWORD, storedHash)));
+        }
+        int succeeded = 0;
+        for (Future<Boolean> login : logins) {
+            if (login.get()) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+}
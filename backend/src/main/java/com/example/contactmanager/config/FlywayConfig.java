@@ -0,0 +1,20 @@
+package com.example.contactmanager.config;
+
+import com.example.contactmanager.migration.V6__Hash_plaintext_passwords;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Java migrations that need application beans. They apply to every vendor and share the
+ * version sequence of the SQL scripts in db/migration/{vendor}.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayConfigurationCustomizer javaMigrations(PasswordEncoder passwordEncoder) {
+        return configuration -> configuration.javaMigrations(new V6__Hash_plaintext_passwords(passwordEncoder));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.contactmanager.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // Boot registers Module beans with its ObjectMapper. Blackbird swaps reflective getter,
+    // setter and constructor calls for generated lambdas.
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
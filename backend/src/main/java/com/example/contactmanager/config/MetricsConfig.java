@@ -0,0 +1,41 @@
+package com.example.contactmanager.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.example.contactmanager.logging.CountingAsyncAppender;
+import com.example.contactmanager.metrics.SqlStatementCounter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Lets SqlStatementMetricsFilter see every statement Hibernate prepares
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    // Log events the ASYNC appender in logback-spring.xml shed, and how close it is to shedding
+    @Bean
+    public MeterBinder asyncLogAppenderMetrics() {
+        return registry -> {
+            if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context
+                    && context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("ASYNC")
+                            instanceof CountingAsyncAppender appender) {
+                FunctionCounter.builder("logback.async.discarded", appender, CountingAsyncAppender::getDiscardedCount)
+                        .description("Log events dropped because the async queue was nearly full")
+                        .register(registry);
+                Gauge.builder("logback.async.queue.remaining", appender, CountingAsyncAppender::getRemainingCapacity)
+                        .description("Free slots in the async log queue")
+                        .register(registry);
+            }
+        };
+    }
+}
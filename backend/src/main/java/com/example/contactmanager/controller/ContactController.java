@@ -1,242 +1,308 @@
 package com.example.contactmanager.controller;
 
+import com.example.contactmanager.dto.ContactMapper;
+import com.example.contactmanager.dto.ContactRequest;
+import com.example.contactmanager.dto.ContactResponse;
+import com.example.contactmanager.dto.ContactSearchResponse;
+import com.example.contactmanager.event.ContactEvent;
+import com.example.contactmanager.event.ContactEventBus;
 import com.example.contactmanager.model.Contact;
-import com.example.contactmanager.model.User;
-import com.example.contactmanager.model.EmailAddress;
-import com.example.contactmanager.model.PhoneNumber;
 import com.example.contactmanager.repository.ContactRepository;
 import com.example.contactmanager.repository.UserRepository;
+import com.example.contactmanager.search.ContactSearchIndex;
+import com.example.contactmanager.security.AuthenticatedUser;
+import com.example.contactmanager.service.ContactExportService;
+import com.example.contactmanager.service.ContactImportService;
+import com.example.contactmanager.service.ContactMerger;
+import com.example.contactmanager.service.ContactSyncService;
+import com.example.contactmanager.service.ContactUpdater;
+import com.example.contactmanager.service.ExportFormat;
+import com.example.contactmanager.service.ImportResult;
+import com.example.contactmanager.service.UpdateResult;
+import com.example.contactmanager.web.ETags;
+import org.springframework.http.HttpHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/contacts")
 public class ContactController {
 
+    private static final Logger log = LoggerFactory.getLogger(ContactController.class);
+
     private final ContactRepository contactRepository;
     private final UserRepository userRepository;
-
-    public ContactController(ContactRepository contactRepository, UserRepository userRepository) {
+    private final ContactSearchIndex searchIndex;
+    private final ContactImportService importService;
+    private final ContactExportService exportService;
+    private final ContactMerger contactMerger;
+    private final ContactMapper contactMapper;
+    private final ContactEventBus eventBus;
+    private final ContactSyncService syncService;
+    private final ContactUpdater contactUpdater;
+
+    public ContactController(ContactRepository contactRepository, UserRepository userRepository,
+                             ContactSearchIndex searchIndex, ContactImportService importService,
+                             ContactExportService exportService, ContactMerger contactMerger,
+                             ContactMapper contactMapper, ContactEventBus eventBus,
+                             ContactSyncService syncService, ContactUpdater contactUpdater) {
         this.contactRepository = contactRepository;
         this.userRepository = userRepository;
+        this.searchIndex = searchIndex;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.contactMerger = contactMerger;
+        this.contactMapper = contactMapper;
+        this.eventBus = eventBus;
+        this.syncService = syncService;
+        this.contactUpdater = contactUpdater;
     }
 
     @PostMapping
-    public ResponseEntity<?> createContact(@RequestBody Map<String, Object> contactData,
-                                           @AuthenticationPrincipal String email) {
+    public ResponseEntity<?> createContact(@RequestBody ContactRequest contactData,
+                                           @AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            // Get the authenticated user
-            User user = userRepository.findByEmail(email);
-            if (user == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body("User not found");
-            }
-
             // Create new contact
             Contact contact = new Contact();
-            contact.setFirstName((String) contactData.get("firstName"));
-            contact.setLastName((String) contactData.get("lastName"));
-            contact.setTitle((String) contactData.get("title"));
-            contact.setUser(user);
-
-            // Handle emails
-            @SuppressWarnings("unchecked")
-            List<Map<String, String>> emailsData = (List<Map<String, String>>) contactData.get("emails");
-            if (emailsData != null) {
-                for (Map<String, String> emailData : emailsData) {
-                    String emailValue = emailData.get("email");
-                    if (emailValue != null && !emailValue.trim().isEmpty()) {
-                        EmailAddress emailAddress = new EmailAddress();
-                        emailAddress.setLabel(emailData.get("label"));
-                        emailAddress.setEmail(emailValue.trim());
-                        emailAddress.setContact(contact);
-                        contact.getEmails().add(emailAddress);
-                    }
-                }
-            }
-
-            // Handle phone numbers
-            @SuppressWarnings("unchecked")
-            List<Map<String, String>> phoneNumbersData = (List<Map<String, String>>) contactData.get("phoneNumbers");
-            if (phoneNumbersData != null) {
-                for (Map<String, String> phoneData : phoneNumbersData) {
-                    String phoneValue = phoneData.get("number");
-                    if (phoneValue != null && !phoneValue.trim().isEmpty()) {
-                        PhoneNumber phoneNumber = new PhoneNumber();
-                        phoneNumber.setLabel(phoneData.get("label"));
-                        phoneNumber.setNumber(phoneValue.trim());
-                        phoneNumber.setContact(contact);
-                        contact.getPhoneNumbers().add(phoneNumber);
-                    }
-                }
-            }
+            contact.setUser(userRepository.getReferenceById(principal.id()));
+            contactMerger.apply(contact, contactData, false);
 
             // Save the contact (this will cascade and save emails and phone numbers too)
             Contact savedContact = contactRepository.save(contact);
+            searchIndex.put(principal.id(), savedContact);
 
-            return ResponseEntity.ok(savedContact);
+            ContactResponse response = contactMapper.toResponse(savedContact);
+            eventBus.publish(principal.id(), ContactEvent.created(response));
+            return ResponseEntity.ok(response);
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error creating contact", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error creating contact: " + e.getMessage());
         }
     }
 
-    @GetMapping("/{contactId}")
-    public ResponseEntity<?> getContact(@PathVariable Long contactId,
-                                        @AuthenticationPrincipal String email) {
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<?> importContacts(@RequestHeader("Content-Type") String contentType,
+                                            InputStream body,
+                                            @AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            // Get the authenticated user
-            User user = userRepository.findByEmail(email);
-            if (user == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body("User not found");
+            // The body is parsed as it streams in, never as a whole
+            ImportResult result = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.valueOf("text/csv"))
+                    ? importService.importCsv(principal.id(), body)
+                    : importService.importJson(principal.id(), body);
+
+            // Too many changes to push one by one; open streams refetch instead
+            if (result.imported() > 0) {
+                eventBus.publish(principal.id(), ContactEvent.resync());
             }
 
-            // Find the contact
-            Optional<Contact> contactOpt = contactRepository.findById(contactId);
-            if (contactOpt.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body("Contact not found");
-            }
+            return ResponseEntity.ok(result);
 
-            Contact contact = contactOpt.get();
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Malformed import: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error importing contacts", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error importing contacts: " + e.getMessage());
+        }
+    }
 
-            // Security check: Make sure the contact belongs to the authenticated user
-            if (!contact.getUser().getId().equals(user.getId())) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body("You can only access your own contacts");
+    @GetMapping("/export")
+    public ResponseEntity<?> exportContacts(@RequestParam(defaultValue = "ndjson") String format,
+                                            @AuthenticationPrincipal AuthenticatedUser principal) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
+
+        // Written on an async thread straight to the response as rows are read
+        Long userId = principal.id();
+        StreamingResponseBody body = out -> exportService.export(userId, exportFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"contacts." + exportFormat.extension() + "\"")
+                .body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@AuthenticationPrincipal AuthenticatedUser principal) {
+        // created / updated / deleted / resync events for this user's contacts, plus heartbeats
+        return eventBus.subscribe(principal.id());
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) Long since,
+                                        @RequestParam(defaultValue = "500") int limit,
+                                        @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            // No "since" means a full sync; the response's version is the next "since"
+            if (since != null && since < 0) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body("Invalid version: " + since);
             }
+            return ResponseEntity.ok(syncService.changesSince(principal.id(), since == null ? -1 : since,
+                    Math.max(1, Math.min(limit, 1000))));
 
-            return ResponseEntity.ok(contact);
+        } catch (Exception e) {
+            log.error("Error fetching contact changes", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error fetching contact changes: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchContacts(@RequestParam("q") String query,
+                                            @RequestParam(defaultValue = "50") int limit,
+                                            @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            // Resolve matches from the in-memory index, then load just those rows (with their
+            // emails and phone numbers) by primary key
+            List<Long> ids = searchIndex.search(principal.id(), query, Math.max(1, Math.min(limit, 200)));
+            List<Contact> contacts = contactRepository.findAllWithDetails(ids);
+
+            List<ContactResponse> sorted = contactMapper.toResponses(contacts).stream()
+                    .sorted(Comparator.comparing(ContactResponse::firstName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+                            .thenComparing(ContactResponse::lastName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)))
+                    .toList();
+
+            return ResponseEntity.ok(new ContactSearchResponse(sorted, query));
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error searching contacts", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error retrieving contact: " + e.getMessage());
+                    .body("Error searching contacts: " + e.getMessage());
         }
     }
 
-    @PutMapping("/{contactId}")
-    public ResponseEntity<?> updateContact(@PathVariable Long contactId,
-                                           @RequestBody Map<String, Object> contactData,
-                                           @AuthenticationPrincipal String email) {
+    @GetMapping("/{contactId}")
+    public ResponseEntity<?> getContact(@PathVariable Long contactId,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                        @AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            // Get the authenticated user
-            User user = userRepository.findByEmail(email);
-            if (user == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body("User not found");
+            // Revalidation: compare versions before loading child collections or serializing anything
+            if (ifNoneMatch != null) {
+                Optional<Long> version = contactRepository.findVersionByIdAndUserId(contactId, principal.id());
+                if (version.isPresent() && ETags.matches(ifNoneMatch, ETags.of(contactId, version.get()))) {
+                    return ETags.notModified(ETags.of(contactId, version.get()));
+                }
             }
 
-            // Find the contact
-            Optional<Contact> contactOpt = contactRepository.findById(contactId);
+            // Find the contact with its emails and phone numbers; other users' contacts are not found
+            Optional<Contact> contactOpt = contactRepository.findByIdAndUserId(contactId, principal.id());
             if (contactOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("Contact not found");
             }
 
             Contact contact = contactOpt.get();
+            return ResponseEntity.ok()
+                    .eTag(ETags.of(contactId, contact.getVersion()))
+                    .cacheControl(ETags.REVALIDATE)
+                    .body(contactMapper.toResponse(contact));
 
-            // Security check: Make sure the contact belongs to the authenticated user
-            if (!contact.getUser().getId().equals(user.getId())) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body("You can only update your own contacts");
-            }
-
-            // Update basic fields
-            contact.setFirstName((String) contactData.get("firstName"));
-            contact.setLastName((String) contactData.get("lastName"));
-            contact.setTitle((String) contactData.get("title"));
-
-            // Clear existing emails and phone numbers (orphanRemoval will delete them)
-            contact.getEmails().clear();
-            contact.getPhoneNumbers().clear();
-
-            // Handle emails
-            @SuppressWarnings("unchecked")
-            List<Map<String, String>> emailsData = (List<Map<String, String>>) contactData.get("emails");
-            if (emailsData != null) {
-                for (Map<String, String> emailData : emailsData) {
-                    String emailValue = emailData.get("email");
-                    if (emailValue != null && !emailValue.trim().isEmpty()) {
-                        EmailAddress emailAddress = new EmailAddress();
-                        emailAddress.setLabel(emailData.get("label"));
-                        emailAddress.setEmail(emailValue.trim());
-                        emailAddress.setContact(contact);
-                        contact.getEmails().add(emailAddress);
-                    }
-                }
-            }
+        } catch (Exception e) {
+            log.error("Error retrieving contact", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving contact: " + e.getMessage());
+        }
+    }
 
-            // Handle phone numbers
-            @SuppressWarnings("unchecked")
-            List<Map<String, String>> phoneNumbersData = (List<Map<String, String>>) contactData.get("phoneNumbers");
-            if (phoneNumbersData != null) {
-                for (Map<String, String> phoneData : phoneNumbersData) {
-                    String phoneValue = phoneData.get("number");
-                    if (phoneValue != null && !phoneValue.trim().isEmpty()) {
-                        PhoneNumber phoneNumber = new PhoneNumber();
-                        phoneNumber.setLabel(phoneData.get("label"));
-                        phoneNumber.setNumber(phoneValue.trim());
-                        phoneNumber.setContact(contact);
-                        contact.getPhoneNumbers().add(phoneNumber);
-                    }
-                }
-            }
+    @PutMapping("/{contactId}")
+    public ResponseEntity<?> updateContact(@PathVariable Long contactId,
+                                           @RequestBody ContactRequest contactData,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            // Full replacement, writing only the fields and rows that differ; concurrent
+            // edits are detected by version and merged when they touch other fields
+            UpdateResult result = contactUpdater.update(contactId, principal.id(), contactData, false, ifMatch);
+            return updateResponse(principal.id(), result);
 
-            // Save the updated contact
-            Contact updatedContact = contactRepository.save(contact);
+        } catch (Exception e) {
+            log.error("Error updating contact", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error updating contact: " + e.getMessage());
+        }
+    }
 
-            return ResponseEntity.ok(updatedContact);
+    @PatchMapping("/{contactId}")
+    public ResponseEntity<?> patchContact(@PathVariable Long contactId,
+                                          @RequestBody ContactRequest contactData,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            // Only the fields present in the body are touched
+            UpdateResult result = contactUpdater.update(contactId, principal.id(), contactData, true, ifMatch);
+            return updateResponse(principal.id(), result);
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error updating contact", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error updating contact: " + e.getMessage());
         }
     }
 
+    // 412 and 409 carry the current contact and its ETag, so the client can rebase its edit
+    private ResponseEntity<?> updateResponse(Long userId, UpdateResult result) {
+        if (result.status() == UpdateResult.Status.NOT_FOUND) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Contact not found");
+        }
+
+        Contact contact = result.contact();
+        ContactResponse response = contactMapper.toResponse(contact);
+        HttpStatus status = switch (result.status()) {
+            case PRECONDITION_FAILED -> HttpStatus.PRECONDITION_FAILED;
+            case CONFLICT -> HttpStatus.CONFLICT;
+            default -> HttpStatus.OK;
+        };
+
+        if (result.status() == UpdateResult.Status.UPDATED) {
+            searchIndex.put(userId, contact);
+            eventBus.publish(userId, ContactEvent.updated(response));
+        }
+
+        return ResponseEntity.status(status)
+                .eTag(ETags.of(contact.getId(), contact.getVersion()))
+                .body(response);
+    }
+
     @DeleteMapping("/{contactId}")
     public ResponseEntity<?> deleteContact(@PathVariable Long contactId,
-                                           @AuthenticationPrincipal String email) {
+                                           @AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            // Get the authenticated user
-            User user = userRepository.findByEmail(email);
-            if (user == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body("User not found");
-            }
-
-            // Find the contact
-            Optional<Contact> contactOpt = contactRepository.findById(contactId);
-            if (contactOpt.isEmpty()) {
+            // Delete the contact and its emails and phone numbers, scoped to the owner,
+            // leaving a tombstone for incremental sync
+            if (!syncService.delete(contactId, principal.id())) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("Contact not found");
             }
-
-            Contact contact = contactOpt.get();
-
-            // Security check: Make sure the contact belongs to the authenticated user
-            if (!contact.getUser().getId().equals(user.getId())) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body("You can only delete your own contacts");
-            }
-
-            // Delete the contact (cascade will delete emails and phone numbers too)
-            contactRepository.delete(contact);
+            searchIndex.remove(principal.id(), contactId);
+            eventBus.publish(principal.id(), ContactEvent.deleted(contactId));
 
             return ResponseEntity.ok().body("Contact deleted successfully");
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error deleting contact", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error deleting contact: " + e.getMessage());
         }
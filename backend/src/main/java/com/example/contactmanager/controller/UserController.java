@@ -1,10 +1,24 @@
 package com.example.contactmanager.controller;
 
+import com.example.contactmanager.dto.ContactMapper;
+import com.example.contactmanager.dto.ContactPageResponse;
+import com.example.contactmanager.dto.ContactResponse;
+import com.example.contactmanager.dto.ContactSummary;
 import com.example.contactmanager.model.Contact;
 import com.example.contactmanager.model.User;
+import com.example.contactmanager.repository.ContactCursor;
+import com.example.contactmanager.repository.ContactListVersion;
 import com.example.contactmanager.repository.ContactRepository;
 import com.example.contactmanager.repository.UserRepository;
+import com.example.contactmanager.security.AuthenticatedUser;
 import com.example.contactmanager.security.JwtUtil;
+import com.example.contactmanager.security.PasswordHasher;
+import com.example.contactmanager.security.UserLookupCache;
+import com.example.contactmanager.security.UserProfile;
+import com.example.contactmanager.web.ETags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -13,25 +27,38 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final Logger log = LoggerFactory.getLogger(UserController.class);
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final UserRepository userRepository;
     private final ContactRepository contactRepository;
     private final JwtUtil jwtUtil;
+    private final UserLookupCache userLookupCache;
+    private final ContactMapper contactMapper;
+    private final PasswordHasher passwordHasher;
 
-    public UserController(UserRepository userRepository, ContactRepository contactRepository, JwtUtil jwtUtil) {
+    public UserController(UserRepository userRepository, ContactRepository contactRepository, JwtUtil jwtUtil,
+                          UserLookupCache userLookupCache, ContactMapper contactMapper,
+                          PasswordHasher passwordHasher) {
         this.userRepository = userRepository;
         this.contactRepository = contactRepository;
         this.jwtUtil = jwtUtil;
+        this.userLookupCache = userLookupCache;
+        this.contactMapper = contactMapper;
+        this.passwordHasher = passwordHasher;
     }
 
     @PostMapping("/register")
@@ -63,14 +90,18 @@ public class UserController {
             // Clean up data
             user.setName(user.getName().trim());
             user.setEmail(user.getEmail().trim().toLowerCase());
+            user.setPassword(passwordHasher.encode(user.getPassword()));
         
             User savedUser = userRepository.save(user);
-            System.out.println("New user registered: " + savedUser.getEmail());
+            userLookupCache.invalidate(savedUser.getEmail());
+            log.info("New user registered: id={}", savedUser.getId());
         
             return ResponseEntity.ok(savedUser);
         
+        } catch (RejectedExecutionException e) {
+            return busy();
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Registration failed", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Registration failed: " + e.getMessage());
         }
@@ -80,39 +111,93 @@ public class UserController {
     public ResponseEntity<Map<String, Object>> loginUser(@RequestBody Map<String, String> loginData) {
         String email = loginData.get("email");
         String password = loginData.get("password");
-        System.out.println("in /api/login,email entered:" + email);
-        System.out.println("in /api/login,password entered:" + password);
-        System.out.println("in /api/login,reached till here");
+        if (email == null || password == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        // Look the user up by the unique email index only; the hash is checked in memory
+        // on the password hashing pool
+        User user = userRepository.findByEmail(email);
+        boolean matches;
+        try {
+            matches = passwordHasher.matches(password, user != null ? user.getPassword() : null);
+        } catch (RejectedExecutionException e) {
+            log.warn("Login rejected, password hashing is saturated");
+            return busy();
+        }
 
-        User user = userRepository.findByEmailAndPassword(email, password);
-        if (user != null) {
-            System.out.println("found users:" + user);
-            String token = jwtUtil.generateToken(user.getEmail());
-            System.out.println("in login endpoint,token:"+token);
+        if (matches) {
+            upgradePasswordHash(user, password);
+            String token = jwtUtil.generateToken(user.getEmail(), user.getId());
+            log.debug("Login succeeded: id={}", user.getId());
 
             return ResponseEntity.ok(Map.of(
                     "token", token,
                     "user", user
             ));
         } else {
-            System.out.println("in /api/login,couldnt find the user lol");
+            log.debug("Login failed");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
 
+    // Hashes of a lower cost are replaced while the raw password is at hand
+    private void upgradePasswordHash(User user, String password) {
+        if (!passwordHasher.needsUpgrade(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordHasher.encode(password));
+            userRepository.save(user);
+            log.info("Password hash upgraded: id={}", user.getId());
+        } catch (RejectedExecutionException e) {
+            // Not worth failing the login over; the next one tries again
+            log.debug("Password hash upgrade skipped, hashing is saturated: id={}", user.getId());
+        }
+    }
+
+    // Hashing pool full: the client should back off briefly rather than pile on
+    private static <T> ResponseEntity<T> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+
     @GetMapping("/contacts")
     public ResponseEntity<?> getContacts(
-            @AuthenticationPrincipal String email,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "firstName") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         try {
-            User user = userRepository.findByEmail(email);
-            if (user == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body("User not found");
+            // "summary" returns flat dashboard rows instead of full contacts
+            if (!view.equals("full") && !view.equals("summary")) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body("Unknown view: " + view);
+            }
+            boolean summary = view.equals("summary");
+            if (size < 1 || size > MAX_PAGE_SIZE) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body("size must be between 1 and " + MAX_PAGE_SIZE);
+            }
+
+            // Every page of the listing changes with any contact of the user, so one aggregate
+            // version tags them all. Taken before the page is read: at worst the tag is older
+            // than the body, which only costs the client a refetch.
+            ContactListVersion listVersion = contactRepository.findListVersionByUserId(principal.id());
+            String etag = ETags.of(listVersion.count(), listVersion.lastChange());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+
+            // Cursor mode: present (even empty) "after" switches to keyset paging
+            if (after != null) {
+                return getContactsAfter(principal.id(), after, size, sortBy, sortDir.equalsIgnoreCase("desc"), summary, etag);
             }
 
             // Create sort object
@@ -123,33 +208,93 @@ public class UserController {
             // Create pageable object
             Pageable pageable = PageRequest.of(page, size, sort);
 
+            if (summary) {
+                // One projection query (plus the count), no entities loaded
+                Page<ContactSummary> summaryPage = contactRepository.findSummariesByUserId(principal.id(), pageable);
+                return ok(etag, ContactPageResponse.offset(
+                        summaryPage.getContent(),
+                        summaryPage.getNumber(),
+                        summaryPage.getTotalPages(),
+                        summaryPage.getTotalElements(),
+                        summaryPage.getSize(),
+                        summaryPage.hasNext(),
+                        summaryPage.hasPrevious()
+                ));
+            }
+
             // Get paginated results
-            Page<Contact> contactPage = contactRepository.findByUserId(user.getId(), pageable);
+            Page<Contact> contactPage = contactRepository.findPageByUserId(principal.id(), pageable);
 
             // Return structured response
-            Map<String, Object> response = Map.of(
-                    "contacts", contactPage.getContent(),
-                    "currentPage", contactPage.getNumber(),
-                    "totalPages", contactPage.getTotalPages(),
-                    "totalElements", contactPage.getTotalElements(),
-                    "size", contactPage.getSize(),
-                    "hasNext", contactPage.hasNext(),
-                    "hasPrevious", contactPage.hasPrevious()
+            ContactPageResponse<ContactResponse> response = ContactPageResponse.offset(
+                    contactMapper.toResponses(contactPage.getContent()),
+                    contactPage.getNumber(),
+                    contactPage.getTotalPages(),
+                    contactPage.getTotalElements(),
+                    contactPage.getSize(),
+                    contactPage.hasNext(),
+                    contactPage.hasPrevious()
             );
 
-            return ResponseEntity.ok(response);
+            return ok(etag, response);
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error fetching contacts", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error fetching contacts: " + e.getMessage());
         }
     }
 
+    private ResponseEntity<?> getContactsAfter(Long userId, String after, int size, String sortBy, boolean descending,
+                                               boolean summary, String etag) {
+        if (!ContactCursor.SORTABLE.contains(sortBy)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Cursor paging is only supported for: " + ContactCursor.SORTABLE);
+        }
+
+        ContactCursor cursor = null;
+        if (!after.isEmpty()) {
+            try {
+                cursor = ContactCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body("Invalid cursor");
+            }
+            if (!cursor.sortBy().equals(sortBy) || cursor.descending() != descending) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body("Cursor does not match the requested sort");
+            }
+        }
+
+        if (summary) {
+            Slice<ContactSummary> slice = contactRepository.findSummarySliceByUserId(userId, sortBy, descending, cursor, size);
+            List<ContactSummary> content = slice.getContent();
+            String nextCursor = slice.hasNext()
+                    ? ContactCursor.after(content.get(content.size() - 1), sortBy, descending).encode()
+                    : null;
+
+            return ok(etag, ContactPageResponse.cursor(content, size, slice.hasNext(), nextCursor));
+        }
+
+        Slice<Contact> slice = contactRepository.findSliceByUserId(userId, sortBy, descending, cursor, size);
+
+        List<Contact> content = slice.getContent();
+        String nextCursor = slice.hasNext()
+                ? ContactCursor.after(content.get(content.size() - 1), sortBy, descending).encode()
+                : null;
+
+        return ok(etag, ContactPageResponse.cursor(contactMapper.toResponses(content), size, slice.hasNext(), nextCursor));
+    }
+
+    private static ResponseEntity<?> ok(String etag, Object body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(ETags.REVALIDATE)
+                .body(body);
+    }
 
     @GetMapping("/by-email")
     public User getUserByEmail(@RequestParam String email) {
-        System.out.println("Looking up user with email: " + email);
         return userRepository.findByEmail(email);
     }
 
@@ -159,18 +304,24 @@ public class UserController {
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<?> getUserProfile(@AuthenticationPrincipal String email) {
+    public ResponseEntity<?> getUserProfile(@AuthenticationPrincipal AuthenticatedUser principal,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            User user = userRepository.findByEmail(email);
-            if (user == null) {
+            UserProfile profile = userLookupCache.find(principal.email());
+            if (profile == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("User not found");
             }
 
-            return ResponseEntity.ok(user);
+            // The cached profile carries the user's version, so a revalidation costs no query
+            String etag = ETags.of(profile.id(), profile.version());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+            return ok(etag, profile);
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error retrieving user profile", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error retrieving user profile: " + e.getMessage());
         }
@@ -178,10 +329,10 @@ public class UserController {
 
     // for changing name of uesr
     @PutMapping("/update-profile")
-    public ResponseEntity<?> updateProfile(@AuthenticationPrincipal String email, 
+    public ResponseEntity<?> updateProfile(@AuthenticationPrincipal AuthenticatedUser principal,
                                          @RequestBody Map<String, String> updateData) {
         try {
-            User user = userRepository.findByEmail(email);
+            User user = userRepository.findById(principal.id()).orElse(null);
             if (user == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("User not found");
@@ -196,12 +347,13 @@ public class UserController {
             // Update the user's name
             user.setName(newName.trim());
             User updatedUser = userRepository.save(user);
+            userLookupCache.invalidate(user.getEmail());
 
-            System.out.println("Profile updated for user: " + email + ", new name: " + newName);
+            log.info("Profile updated: id={}", principal.id());
             return ResponseEntity.ok(updatedUser);
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error updating profile", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error updating profile: " + e.getMessage());
         }
@@ -209,10 +361,10 @@ public class UserController {
 
 
     @PutMapping("/change-password")
-    public ResponseEntity<?> changePassword(@AuthenticationPrincipal String email, 
+    public ResponseEntity<?> changePassword(@AuthenticationPrincipal AuthenticatedUser principal,
                                           @RequestBody Map<String, String> passwordData) {
         try {
-            User user = userRepository.findByEmail(email);
+            User user = userRepository.findById(principal.id()).orElse(null);
             if (user == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("User not found");
@@ -228,7 +380,7 @@ public class UserController {
             }
 
             // Check if current password is correct
-            if (!user.getPassword().equals(currentPassword)) {
+            if (!passwordHasher.matches(currentPassword, user.getPassword())) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body("Current password is incorrect");
             }
@@ -240,14 +392,17 @@ public class UserController {
             }
 
             // Update the password
-            user.setPassword(newPassword);
+            user.setPassword(passwordHasher.encode(newPassword));
             userRepository.save(user);
+            userLookupCache.invalidate(user.getEmail());
 
-            System.out.println("Password changed successfully for user: " + email);
+            log.info("Password changed: id={}", principal.id());
             return ResponseEntity.ok(Map.of("message", "Password changed successfully"));
 
+        } catch (RejectedExecutionException e) {
+            return busy();
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error changing password", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error changing password: " + e.getMessage());
         }
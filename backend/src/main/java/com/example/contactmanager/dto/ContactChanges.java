@@ -0,0 +1,11 @@
+package com.example.contactmanager.dto;
+
+import java.util.List;
+
+/**
+ * A page of the change feed: contacts created or updated and ids of contacts deleted since
+ * the requested version. {@code version} is the {@code since} for the next request;
+ * {@code hasMore} means that request returns more changes right away.
+ */
+public record ContactChanges(List<ContactResponse> upserts, List<Long> deletions, long version, boolean hasMore) {
+}
@@ -0,0 +1,25 @@
+package com.example.contactmanager.dto;
+
+import com.example.contactmanager.model.Contact;
+import com.example.contactmanager.model.EmailAddress;
+import com.example.contactmanager.model.PhoneNumber;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+/**
+ * Entity to response mapping, generated at compile time by MapStruct (plain getter calls,
+ * no reflection). Callers must have the collections loaded; responses are detached from
+ * the persistence context, so serializing them can never run a query.
+ */
+@Mapper(componentModel = "spring")
+public interface ContactMapper {
+
+    ContactResponse toResponse(Contact contact);
+
+    List<ContactResponse> toResponses(List<Contact> contacts);
+
+    EmailDto toDto(EmailAddress email);
+
+    PhoneNumberDto toDto(PhoneNumber phone);
+}
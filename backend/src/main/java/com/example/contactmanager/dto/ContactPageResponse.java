@@ -0,0 +1,30 @@
+package com.example.contactmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * A page of contacts, either full {@link ContactResponse}s or {@link ContactSummary} rows.
+ * Offset pages fill in the page numbers and totals; cursor pages leave them out and carry
+ * {@code nextCursor} instead while there is more to read.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ContactPageResponse<T>(List<T> contacts,
+                                     Integer currentPage,
+                                     Integer totalPages,
+                                     Long totalElements,
+                                     int size,
+                                     boolean hasNext,
+                                     Boolean hasPrevious,
+                                     String nextCursor) {
+
+    public static <T> ContactPageResponse<T> offset(List<T> contacts, int currentPage, int totalPages,
+                                                    long totalElements, int size, boolean hasNext, boolean hasPrevious) {
+        return new ContactPageResponse<>(contacts, currentPage, totalPages, totalElements, size, hasNext, hasPrevious, null);
+    }
+
+    public static <T> ContactPageResponse<T> cursor(List<T> contacts, int size, boolean hasNext, String nextCursor) {
+        return new ContactPageResponse<>(contacts, null, null, null, size, hasNext, null, nextCursor);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.contactmanager.dto;
+
+import java.util.List;
+
+/**
+ * Body of POST, PUT and PATCH /api/contacts. For POST and PUT a null field means empty;
+ * for PATCH it means "leave unchanged" (send "" or [] to clear).
+ */
+public record ContactRequest(String firstName,
+                             String lastName,
+                             String title,
+                             List<EmailDto> emails,
+                             List<PhoneNumberDto> phoneNumbers) {
+}
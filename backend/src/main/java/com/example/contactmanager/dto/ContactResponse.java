@@ -0,0 +1,11 @@
+package com.example.contactmanager.dto;
+
+import java.util.List;
+
+public record ContactResponse(Long id,
+                              String firstName,
+                              String lastName,
+                              String title,
+                              List<EmailDto> emails,
+                              List<PhoneNumberDto> phoneNumbers) {
+}
@@ -0,0 +1,6 @@
+package com.example.contactmanager.dto;
+
+import java.util.List;
+
+public record ContactSearchResponse(List<ContactResponse> contacts, String query) {
+}
@@ -0,0 +1,15 @@
+package com.example.contactmanager.dto;
+
+/**
+ * A row of the dashboard list: the contact's own columns plus its primary (first added)
+ * email and phone number, all selected in one query without loading any entity.
+ */
+public record ContactSummary(Long id,
+                             String firstName,
+                             String lastName,
+                             String title,
+                             String emailLabel,
+                             String email,
+                             String phoneLabel,
+                             String phoneNumber) {
+}
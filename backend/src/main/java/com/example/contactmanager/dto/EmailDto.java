@@ -0,0 +1,8 @@
+package com.example.contactmanager.dto;
+
+/**
+ * An email address in contact requests and responses. {@code id} is optional on requests;
+ * when present it identifies the existing row to update.
+ */
+public record EmailDto(Long id, String label, String email) {
+}
@@ -0,0 +1,37 @@
+package com.example.contactmanager.event;
+
+import com.example.contactmanager.dto.ContactResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A change to one of a user's contacts, as pushed on the change feed. Created and updated
+ * events carry the contact as it is now; deleted events only its id. A resync event means
+ * changes were missed (or came in bulk) and the client should refetch what it shows.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ContactEvent(Type type, Long contactId, ContactResponse contact) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, RESYNC;
+
+        String eventName() {
+            return name().toLowerCase();
+        }
+    }
+
+    public static ContactEvent created(ContactResponse contact) {
+        return new ContactEvent(Type.CREATED, contact.id(), contact);
+    }
+
+    public static ContactEvent updated(ContactResponse contact) {
+        return new ContactEvent(Type.UPDATED, contact.id(), contact);
+    }
+
+    public static ContactEvent deleted(Long contactId) {
+        return new ContactEvent(Type.DELETED, contactId, null);
+    }
+
+    public static ContactEvent resync() {
+        return new ContactEvent(Type.RESYNC, null, null);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.contactmanager.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process publish/subscribe for contact changes, delivered to each user's open
+ * Server-Sent Events streams.
+ *
+ * Every subscriber has a bounded buffer drained by its own virtual thread, so publishing
+ * never waits on a client and an idle stream costs a parked virtual thread rather than a
+ * platform thread. A subscriber that falls a full buffer behind has its backlog replaced
+ * by a single resync event instead of growing without bound. Heartbeats are queued from
+ * one scheduled task and only into idle buffers.
+ */
+@Component
+public class ContactEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactEventBus.class);
+
+    // Queue markers besides ContactEvent
+    private static final Object HEARTBEAT = new Object();
+    private static final Object CLOSE = new Object();
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ExecutorService drainers = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter overflows;
+    private final int bufferSize;
+    private final Duration timeout;
+
+    public ContactEventBus(MeterRegistry meterRegistry,
+                           @Value("${contacts.stream.buffer-size:64}") int bufferSize,
+                           @Value("${contacts.stream.timeout:30m}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        Gauge.builder("contacts.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open contact change streams")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("contacts.stream.overflows")
+                .description("Subscribers that fell a full buffer behind and were told to resync")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a change stream for the user. The stream ends after the configured timeout;
+     * clients are expected to reconnect.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscription subscription = new Subscription(userId, emitter);
+
+        // Added under the map entry's lock, as close() removes under it: otherwise the user's
+        // last stream closing in between could drop the set this subscription goes into
+        subscriptions.compute(userId, (id, userSubscriptions) -> {
+            Set<Subscription> set = userSubscriptions != null ? userSubscriptions : ConcurrentHashMap.newKeySet();
+            set.add(subscription);
+            return set;
+        });
+        subscriberCount.incrementAndGet();
+
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        // Sent first, so the response is committed and the client knows it is connected
+        subscription.heartbeat();
+        drainers.execute(subscription::drain);
+        return emitter;
+    }
+
+    public void publish(Long userId, ContactEvent event) {
+        Set<Subscription> userSubscriptions = subscriptions.get(userId);
+        if (userSubscriptions != null) {
+            for (Subscription subscription : userSubscriptions) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    // Keeps idle connections from being dropped by proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${contacts.stream.heartbeat-interval:25s}")
+    void heartbeat() {
+        for (Set<Subscription> userSubscriptions : subscriptions.values()) {
+            for (Subscription subscription : userSubscriptions) {
+                subscription.heartbeat();
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (Set<Subscription> userSubscriptions : subscriptions.values()) {
+            for (Subscription subscription : userSubscriptions) {
+                subscription.emitter.complete();
+                subscription.close();
+            }
+        }
+        drainers.shutdownNow();
+    }
+
+    private final class Subscription {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(ContactEvent event) {
+            if (!queue.offer(event)) {
+                // Too far behind: drop the backlog, the client refetches instead
+                queue.clear();
+                queue.offer(ContactEvent.resync());
+                overflows.increment();
+            }
+        }
+
+        void heartbeat() {
+            if (queue.isEmpty()) {
+                queue.offer(HEARTBEAT);
+            }
+        }
+
+        void drain() {
+            try {
+                while (!closed.get()) {
+                    Object item = queue.take();
+                    if (item == CLOSE) {
+                        break;
+                    }
+                    if (item == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        ContactEvent event = (ContactEvent) item;
+                        emitter.send(SseEmitter.event()
+                                .name(event.type().eventName())
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the stream already completed
+                log.debug("Contact stream for user {} ended: {}", userId, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriptions.computeIfPresent(userId, (id, userSubscriptions) -> {
+                userSubscriptions.remove(this);
+                return userSubscriptions.isEmpty() ? null : userSubscriptions;
+            });
+            subscriberCount.decrementAndGet();
+
+            // Wake the drainer if it is waiting
+            queue.clear();
+            queue.offer(CLOSE);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.contactmanager.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Async appender that counts the events it sheds once the queue is past the discarding
+ * threshold, so dropped log lines show up as a metric instead of going missing silently.
+ *
+ * Only discardable events (TRACE, DEBUG, INFO) are shed at the threshold. Those are all this
+ * appender receives in logback-spring.xml, so a queue that fills completely would mean the
+ * threshold was passed by concurrent callers; neverBlock drops those uncounted.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        // Only consulted once the queue is below the discarding threshold
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            discarded.increment();
+        }
+        return discardable;
+    }
+
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.contactmanager.logging;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * The {@code %mask} pattern word: the formatted message with secrets blanked out by
+ * {@link SecretMasker}. Used in place of {@code %m} in logback-spring.xml.
+ */
+public class MaskingConverter extends ClassicConverter {
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        return SecretMasker.mask(event.getFormattedMessage());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.contactmanager.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import org.springframework.boot.json.JsonWriter;
+import org.springframework.boot.json.JsonWriter.ValueProcessor;
+import org.springframework.boot.logging.structured.StructuredLoggingJsonMembersCustomizer;
+
+/**
+ * Applies {@link SecretMasker} to the message of structured (ECS JSON) log lines, the
+ * counterpart of {@link MaskingConverter} for the prod profile.
+ */
+public class MaskingJsonMembersCustomizer implements StructuredLoggingJsonMembersCustomizer<ILoggingEvent> {
+
+    @Override
+    public void customize(JsonWriter.Members<ILoggingEvent> members) {
+        members.applyingValueProcessor(ValueProcessor.of(String.class, SecretMasker::mask).whenHasPath("message"));
+    }
+}
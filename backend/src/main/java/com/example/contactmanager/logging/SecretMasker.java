@@ -0,0 +1,28 @@
+package com.example.contactmanager.logging;
+
+import java.util.regex.Pattern;
+
+/**
+ * Blanks out bearer tokens and password/secret/token values in a log message, as a safety
+ * net for secrets that end up in a message or exception text by accident.
+ */
+public final class SecretMasker {
+
+    static final String MASK = "****";
+
+    private static final Pattern BEARER = Pattern.compile("(?i)(bearer\\s+)[A-Za-z0-9._~+/=-]+");
+    // password=..., "password":"...", token: ... and the like
+    private static final Pattern KEY_VALUE =
+            Pattern.compile("(?i)((?:password|secret|token)\"?\\s*[:=]\\s*\"?)[^\\s\",&}]+");
+
+    private SecretMasker() {
+    }
+
+    public static String mask(String message) {
+        if (message == null || message.isEmpty()) {
+            return message;
+        }
+        String masked = BEARER.matcher(message).replaceAll("$1" + MASK);
+        return KEY_VALUE.matcher(masked).replaceAll("$1" + MASK);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.contactmanager.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Replaces the passwords stored in plain text before hashing was introduced with
+ * {@code {bcrypt}} hashes of themselves, so none are left for users who never log in
+ * again and no login skips the BCrypt cost. Runs in chunks by id; each chunk is read
+ * completely before it is updated, as SQL Server without MARS would otherwise buffer the
+ * open result set.
+ */
+public class V6__Hash_plaintext_passwords extends BaseJavaMigration {
+
+    private static final int CHUNK = 500;
+
+    private final PasswordEncoder passwordEncoder;
+
+    public V6__Hash_plaintext_passwords(PasswordEncoder passwordEncoder) {
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        long lastId = 0;
+        while (true) {
+            Map<Long, String> plain = new LinkedHashMap<>();
+            try (PreparedStatement select = connection.prepareStatement(
+                    "select id, password from users where id > ? and password is not null "
+                            + "and password not like '{bcrypt}%' order by id")) {
+                select.setMaxRows(CHUNK);
+                select.setLong(1, lastId);
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        plain.put(rows.getLong(1), rows.getString(2));
+                    }
+                }
+            }
+            if (plain.isEmpty()) {
+                return;
+            }
+
+            // BCrypt is slow by design; spread the chunk over the cores
+            Map<Long, String> hashed = new ConcurrentHashMap<>();
+            plain.entrySet().parallelStream()
+                    .forEach(row -> hashed.put(row.getKey(), passwordEncoder.encode(row.getValue())));
+
+            try (PreparedStatement update = connection.prepareStatement("update users set password = ? where id = ?")) {
+                for (Map.Entry<Long, String> row : hashed.entrySet()) {
+                    update.setString(1, row.getValue());
+                    update.setLong(2, row.getKey());
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+            for (Long id : plain.keySet()) {
+                lastId = id;
+            }
+        }
+    }
+}
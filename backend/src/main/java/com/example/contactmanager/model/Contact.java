@@ -1,24 +1,42 @@
 package com.example.contactmanager.model;
 
+import com.example.contactmanager.sync.ChangeTracked;
+import com.example.contactmanager.sync.ChangeVersionListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Entity
-public class Contact {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(ChangeVersionListener.class)
+public class Contact implements ChangeTracked {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY, so inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contact_seq")
+    @SequenceGenerator(name = "contact_seq", sequenceName = "contact_seq", allocationSize = 50)
     private Long id;
 
     private String firstName;
     private String lastName;
     private String title;
 
-    @ManyToOne
+    // Optimistic lock, and the ETag of GET /api/contacts/{id}
+    @Version
+    @JsonIgnore
+    private long version;
+
+    // Stamped on every insert and update, see ChangeVersionListener
+    @JsonIgnore
+    private long changeVersion;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonIgnore // Optional: avoid sending the whole user with each contact
     private User user;
@@ -26,11 +44,13 @@ public class Contact {
     // Use Set to avoid bag semantics
     @OneToMany(mappedBy = "contact", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<EmailAddress> emails = new LinkedHashSet<>();
 
     // Also Set here
     @OneToMany(mappedBy = "contact", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<PhoneNumber> phoneNumbers = new LinkedHashSet<>();
 
     // Getters and Setters
@@ -46,6 +66,18 @@ public class Contact {
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
 
+    public long getVersion() { return version; }
+
+    public long getChangeVersion() { return changeVersion; }
+    @Override
+    public void setChangeVersion(long changeVersion) { this.changeVersion = changeVersion; }
+
+    /**
+     * Marks the contact as changed so it is stamped with a new version on flush, also
+     * when only its emails or phone numbers changed and no contact column did.
+     */
+    public void touch() { this.changeVersion = 0; }
+
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 
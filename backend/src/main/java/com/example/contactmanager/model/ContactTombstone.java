@@ -0,0 +1,36 @@
+package com.example.contactmanager.model;
+
+import com.example.contactmanager.sync.ChangeTracked;
+import com.example.contactmanager.sync.ChangeVersionListener;
+import jakarta.persistence.*;
+
+/**
+ * Records that a contact was deleted, so incremental sync can report the deletion.
+ */
+@Entity
+@Table(name = "contact_tombstone")
+@EntityListeners(ChangeVersionListener.class)
+public class ContactTombstone implements ChangeTracked {
+
+    @Id
+    private Long contactId;
+
+    private Long userId;
+
+    private long changeVersion;
+
+    protected ContactTombstone() {}
+
+    public ContactTombstone(Long contactId, Long userId) {
+        this.contactId = contactId;
+        this.userId = userId;
+    }
+
+    public Long getContactId() { return contactId; }
+
+    public Long getUserId() { return userId; }
+
+    public long getChangeVersion() { return changeVersion; }
+    @Override
+    public void setChangeVersion(long changeVersion) { this.changeVersion = changeVersion; }
+}
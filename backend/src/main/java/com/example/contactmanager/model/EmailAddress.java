@@ -2,12 +2,19 @@ package com.example.contactmanager.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class EmailAddress {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_address_seq")
+    @SequenceGenerator(name = "email_address_seq", sequenceName = "email_address_seq", allocationSize = 50)
     private Long id;
 
     private String label;
@@ -15,6 +22,7 @@ public class EmailAddress {
 
     @ManyToOne
     @JoinColumn(name = "contact_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @JsonIgnore // prevent infinite recursion
     private Contact contact;
 
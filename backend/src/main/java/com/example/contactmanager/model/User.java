@@ -3,8 +3,12 @@ package com.example.contactmanager.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "users")
 public class User {
 
@@ -17,6 +21,11 @@ public class User {
     @Column(unique = true)
     private String email;
 
+    // Optimistic lock, and the ETag of GET /api/users/profile
+    @Version
+    @JsonIgnore
+    private long version;
+
     // Remove @JsonIgnore and use @JsonProperty instead
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
@@ -31,6 +40,8 @@ public class User {
 
     public Long getId() { return id; }
 
+    public long getVersion() { return version; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
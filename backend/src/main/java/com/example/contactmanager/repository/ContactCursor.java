@@ -0,0 +1,67 @@
+package com.example.contactmanager.repository;
+
+import com.example.contactmanager.dto.ContactSummary;
+import com.example.contactmanager.model.Contact;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque keyset pagination token: the sort column, its direction and the (value, id)
+ * pair of the last contact on the previous slice.
+ */
+public record ContactCursor(String sortBy, boolean descending, String value, Long id) {
+
+    // Columns that can be paged by key; they are interpolated into JPQL, so keep this a whitelist
+    public static final Set<String> SORTABLE = Set.of("firstName", "lastName", "title", "id");
+
+    public ContactCursor {
+        if (!SORTABLE.contains(sortBy)) {
+            throw new IllegalArgumentException("Cannot page by: " + sortBy);
+        }
+    }
+
+    /**
+     * Cursor pointing just past {@code last} in the given ordering.
+     */
+    public static ContactCursor after(Contact last, String sortBy, boolean descending) {
+        return after(last.getId(), last.getFirstName(), last.getLastName(), last.getTitle(), sortBy, descending);
+    }
+
+    public static ContactCursor after(ContactSummary last, String sortBy, boolean descending) {
+        return after(last.id(), last.firstName(), last.lastName(), last.title(), sortBy, descending);
+    }
+
+    private static ContactCursor after(Long id, String firstName, String lastName, String title,
+                                       String sortBy, boolean descending) {
+        String value = switch (sortBy) {
+            case "firstName" -> firstName;
+            case "lastName" -> lastName;
+            case "title" -> title;
+            default -> null;
+        };
+        return new ContactCursor(sortBy, descending, value, id);
+    }
+
+    public String encode() {
+        String raw = sortBy + ":" + (descending ? "d" : "a") + ":" + id + ":"
+                + (value == null ? "n" : "v" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ContactCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 4);
+            if (parts.length != 4 || parts[3].isEmpty()) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            String value = parts[3].charAt(0) == 'n' ? null : parts[3].substring(1);
+            return new ContactCursor(parts[0], parts[1].equals("d"), value, Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // Also covers bad Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
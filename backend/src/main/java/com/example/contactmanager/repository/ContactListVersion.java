@@ -0,0 +1,8 @@
+package com.example.contactmanager.repository;
+
+/**
+ * Aggregate version of a user's whole address book: any insert or update raises
+ * {@code lastChange}, any delete lowers {@code count}.
+ */
+public record ContactListVersion(Long count, Long lastChange) {
+}
@@ -1,20 +1,200 @@
 package com.example.contactmanager.repository;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import com.example.contactmanager.dto.ContactSummary;
 import com.example.contactmanager.model.Contact;
+import com.example.contactmanager.sync.ChangeRef;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.Hibernate;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ContactRepository extends JpaRepository<Contact, Long> {
+public interface ContactRepository extends JpaRepository<Contact, Long>, ContactRepositoryCustom {
 
     // Load child collections in one query
     @EntityGraph(attributePaths = {"emails", "phoneNumbers"})
     List<Contact> findByUserId(Long userId);
 
+    // Forward-only cursor for exports; consume inside a transaction and close it.
+    // Each contact row (kind 0) is followed by its emails (1) and phone numbers (2):
+    // [contact id, kind, item id, first name | label, last name | value, title].
+    // Children come from the same statement rather than a query per window, since a second
+    // statement on the connection makes mssql-jdbc (without MARS) buffer the open cursor.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = "select c.id as contact_id, 0 as kind, c.id as item_id, c.first_name, c.last_name, c.title "
+            + "from contact c where c.user_id = :userId "
+            + "union all "
+            + "select e.contact_id, 1, e.id, e.label, e.email, null "
+            + "from email_address e join contact c on c.id = e.contact_id where c.user_id = :userId "
+            + "union all "
+            + "select p.contact_id, 2, p.id, p.label, p.number, null "
+            + "from phone_number p join contact c on c.id = p.contact_id where c.user_id = :userId "
+            + "order by contact_id, kind, item_id",
+           nativeQuery = true)
+    Stream<Object[]> streamExportRowsByUserId(@Param("userId") Long userId);
+
+    // Ownership is part of the predicate, so a foreign contact simply isn't found
     @EntityGraph(attributePaths = {"emails", "phoneNumbers"})
-    Page<Contact> findByUserId(Long userId, Pageable pageable);
+    @Query("select c from Contact c where c.id = :id and c.user.id = :userId")
+    Optional<Contact> findWithDetailsByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Loads a contact with its emails and phone numbers, or nothing if the user doesn't own it.
+     * When the contact and both collections are in the second-level cache this is answered
+     * by find-by-id without touching the database; otherwise it is one owner-scoped query.
+     */
+    @Transactional(readOnly = true)
+    default Optional<Contact> findByIdAndUserId(Long id, Long userId) {
+        if (!isCachedWithDetails(id)) {
+            return findWithDetailsByIdAndUserId(id, userId);
+        }
+        // The owner is a lazy proxy; reading its id doesn't load the user
+        return findById(id)
+                .filter(contact -> contact.getUser().getId().equals(userId))
+                .map(contact -> {
+                    Hibernate.initialize(contact.getEmails());
+                    Hibernate.initialize(contact.getPhoneNumbers());
+                    return contact;
+                });
+    }
+
+    @Modifying
+    @Query("delete from Contact c where c.id = :id and c.user.id = :userId")
+    int deleteOwnedContact(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Deletes a contact the user owns with one owner-scoped statement; its emails and phone
+     * numbers go by ON DELETE CASCADE. Returns false if the user owns no such contact.
+     * Being a bulk delete, it evicts the Contact and collection cache regions as a whole.
+     */
+    @Transactional
+    default boolean deleteOwned(Long id, Long userId) {
+        return deleteOwnedContact(id, userId) > 0;
+    }
+
+    // Page over ids only, so OFFSET/FETCH runs in SQL instead of in memory.
+    // Id pages (and their counts) go through the query cache; any Contact write invalidates them.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(value = "select c.id from Contact c where c.user.id = :userId",
+           countQuery = "select count(c) from Contact c where c.user.id = :userId")
+    Page<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // ETag of the contact listing: answered from the (user_id, change_version) index,
+    // and from the query cache until the next Contact write
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.example.contactmanager.repository.ContactListVersion(count(c), coalesce(max(c.changeVersion), 0L)) "
+            + "from Contact c where c.user.id = :userId")
+    ContactListVersion findListVersionByUserId(@Param("userId") Long userId);
+
+    /**
+     * The version of a contact the user owns, without initializing its emails or phone
+     * numbers (and from the second-level cache when warm).
+     */
+    @Transactional(readOnly = true)
+    default Optional<Long> findVersionByIdAndUserId(Long id, Long userId) {
+        return findById(id)
+                .filter(contact -> contact.getUser().getId().equals(userId))
+                .map(Contact::getVersion);
+    }
+
+    // Incremental sync: contacts changed in (since, upTo], oldest change first
+    @Query("select new com.example.contactmanager.sync.ChangeRef(c.id, c.changeVersion) "
+            + "from Contact c where c.user.id = :userId "
+            + "and c.changeVersion > :since and c.changeVersion <= :upTo order by c.changeVersion")
+    List<ChangeRef> findChangesByUserId(@Param("userId") Long userId, @Param("since") long since,
+                                        @Param("upTo") long upTo, Pageable pageable);
+
+    // Dashboard rows: contact columns plus the first-added email and phone, picked in SQL.
+    // Constructor results are plain records, nothing enters the persistence context.
+    String SUMMARY_SELECT = "select new com.example.contactmanager.dto.ContactSummary("
+            + "c.id, c.firstName, c.lastName, c.title, e.label, e.email, p.label, p.number) "
+            + "from Contact c "
+            + "left join EmailAddress e on e.contact = c "
+            + "and e.id = (select min(e2.id) from EmailAddress e2 where e2.contact = c) "
+            + "left join PhoneNumber p on p.contact = c "
+            + "and p.id = (select min(p2.id) from PhoneNumber p2 where p2.contact = c) ";
+
+    @Query(value = SUMMARY_SELECT + "where c.user.id = :userId",
+           countQuery = "select count(c) from Contact c where c.user.id = :userId")
+    Page<ContactSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where c.id in :ids")
+    List<ContactSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    default Slice<ContactSummary> findSummarySliceByUserId(Long userId, String sortBy, boolean descending,
+                                                           ContactCursor after, int size) {
+        Slice<Long> ids = findIdSliceByUserId(userId, sortBy, descending, after, size);
+        if (ids.getContent().isEmpty()) {
+            return new SliceImpl<>(List.of(), ids.getPageable(), false);
+        }
+
+        Map<Long, ContactSummary> byId = new HashMap<>();
+        for (ContactSummary summary : findSummariesByIdIn(ids.getContent())) {
+            byId.put(summary.id(), summary);
+        }
+        List<ContactSummary> content = ids.getContent().stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new SliceImpl<>(content, ids.getPageable(), ids.hasNext());
+    }
+
+    @EntityGraph(attributePaths = {"emails"})
+    @Query("select c from Contact c where c.id in :ids")
+    List<Contact> findWithEmailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"phoneNumbers"})
+    @Query("select c from Contact c where c.id in :ids")
+    List<Contact> findWithPhoneNumbersByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * A page of a user's contacts with emails and phone numbers loaded: one query for the
+     * page of ids (plus the count), then one per collection for just those ids.
+     */
+    @Transactional(readOnly = true)
+    default Page<Contact> findPageByUserId(Long userId, Pageable pageable) {
+        Page<Long> ids = findIdsByUserId(userId, pageable);
+        return new PageImpl<>(findAllWithDetails(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    @Transactional(readOnly = true)
+    default Slice<Contact> findSliceByUserId(Long userId, String sortBy, boolean descending,
+                                             ContactCursor after, int size) {
+        Slice<Long> ids = findIdSliceByUserId(userId, sortBy, descending, after, size);
+        return new SliceImpl<>(findAllWithDetails(ids.getContent()), ids.getPageable(), ids.hasNext());
+    }
+
+    // Both fetches share the persistence context, so the second fills in the instances of the first
+    @Transactional(readOnly = true)
+    default List<Contact> findAllWithDetails(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Contact> byId = new HashMap<>();
+        for (Contact contact : findWithEmailsByIdIn(ids)) {
+            byId.put(contact.getId(), contact);
+        }
+        findWithPhoneNumbersByIdIn(ids);
+
+        // Keep the order of the id page
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
 
-}
\ No newline at end of file
+}
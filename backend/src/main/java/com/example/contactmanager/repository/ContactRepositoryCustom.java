@@ -0,0 +1,19 @@
+package com.example.contactmanager.repository;
+
+import org.springframework.data.domain.Slice;
+
+public interface ContactRepositoryCustom {
+
+    /**
+     * Keyset (seek) page of a user's contact ids ordered by {@code sortBy} then id.
+     * Pass a null cursor for the first slice. No count query is issued.
+     */
+    Slice<Long> findIdSliceByUserId(Long userId, String sortBy, boolean descending,
+                                    ContactCursor after, int size);
+
+    /**
+     * Whether a contact and both its collections are in the second-level cache, so
+     * loading it by id costs no statement.
+     */
+    boolean isCachedWithDetails(Long id);
+}
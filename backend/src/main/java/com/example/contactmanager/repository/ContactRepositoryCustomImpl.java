@@ -0,0 +1,87 @@
+package com.example.contactmanager.repository;
+
+import com.example.contactmanager.model.Contact;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+class ContactRepositoryCustomImpl implements ContactRepositoryCustom {
+
+    private static final String EMAILS = Contact.class.getName() + ".emails";
+    private static final String PHONE_NUMBERS = Contact.class.getName() + ".phoneNumbers";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Long> findIdSliceByUserId(Long userId, String sortBy, boolean descending,
+                                           ContactCursor after, int size) {
+        if (!ContactCursor.SORTABLE.contains(sortBy)) {
+            throw new IllegalArgumentException("Cannot page by: " + sortBy);
+        }
+
+        String column = "c." + sortBy;
+        String dir = descending ? "desc" : "asc";
+        StringBuilder jpql = new StringBuilder("select c.id from Contact c where c.user.id = :userId");
+
+        if (after != null) {
+            jpql.append(" and ").append(seekPredicate(column, sortBy.equals("id"), descending, after.value() == null));
+        }
+        jpql.append(" order by ").append(column).append(' ').append(dir);
+        if (!sortBy.equals("id")) {
+            jpql.append(", c.id ").append(dir);
+        }
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class)
+                .setParameter("userId", userId)
+                // One extra row tells us whether there is a next slice without counting
+                .setMaxResults(size + 1)
+                .setHint(HibernateHints.HINT_CACHEABLE, true);
+
+        if (after != null) {
+            query.setParameter("lastId", after.id());
+            if (!sortBy.equals("id") && after.value() != null) {
+                query.setParameter("lastValue", after.value());
+            }
+        }
+
+        List<Long> rows = query.getResultList();
+        boolean hasNext = rows.size() > size;
+        List<Long> content = hasNext ? rows.subList(0, size) : rows;
+
+        Sort sort = descending ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        return new SliceImpl<>(content, PageRequest.of(0, size, sort), hasNext);
+    }
+
+    // NULLs sort lowest (SQL Server default): first when ascending, last when descending
+    private static String seekPredicate(String column, boolean byId, boolean descending, boolean lastWasNull) {
+        String cmp = descending ? "<" : ">";
+        if (byId) {
+            return "c.id " + cmp + " :lastId";
+        }
+        if (lastWasNull) {
+            return descending
+                    ? "(" + column + " is null and c.id < :lastId)"
+                    : "((" + column + " is null and c.id > :lastId) or " + column + " is not null)";
+        }
+        String seek = column + " " + cmp + " :lastValue or (" + column + " = :lastValue and c.id " + cmp + " :lastId)";
+        return descending ? "(" + seek + " or " + column + " is null)" : "(" + seek + ")";
+    }
+
+    @Override
+    public boolean isCachedWithDetails(Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        return cache.containsEntity(Contact.class, id)
+                && cache.containsCollection(EMAILS, id)
+                && cache.containsCollection(PHONE_NUMBERS, id);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.contactmanager.repository;
+
+import com.example.contactmanager.model.ContactTombstone;
+import com.example.contactmanager.sync.ChangeRef;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ContactTombstoneRepository extends JpaRepository<ContactTombstone, Long> {
+
+    @Query("select new com.example.contactmanager.sync.ChangeRef(t.contactId, t.changeVersion) "
+            + "from ContactTombstone t where t.userId = :userId "
+            + "and t.changeVersion > :since and t.changeVersion <= :upTo order by t.changeVersion")
+    List<ChangeRef> findChangesByUserId(@Param("userId") Long userId, @Param("since") long since,
+                                        @Param("upTo") long upTo, Pageable pageable);
+}
@@ -8,7 +8,6 @@ import org.springframework.data.repository.query.Param;
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByEmail(String email);
 //    User findByPhoneNumberAndPassword(String phoneNumber, String password);
-    User findByEmailAndPassword(String email,String password);
 
 }
 
@@ -0,0 +1,248 @@
+package com.example.contactmanager.search;
+
+import com.example.contactmanager.model.Contact;
+import com.example.contactmanager.model.EmailAddress;
+import com.example.contactmanager.model.PhoneNumber;
+import com.example.contactmanager.repository.ContactRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over a user's contacts, partitioned by user id.
+ *
+ * Terms are kept in a sorted map so a query token is answered with a prefix range scan
+ * instead of a LIKE '%x%' scan on the contact tables. Phone numbers are indexed by every
+ * digit suffix, which turns a prefix lookup into a substring match on the number.
+ * A user's partition is built lazily from the database on their first search and kept
+ * current through put/remove calls from the write paths. Partitions are dropped after
+ * {@code search.index.idle-timeout} without use, and beyond {@code search.index.max-users}.
+ */
+@Component
+public class ContactSearchIndex {
+
+    // The order search results are shown in: first name, then last name, case-insensitively
+    private static final Comparator<Name> NAME_ORDER = Comparator
+            .comparing(Name::first, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(Name::last, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+
+    private final ContactRepository contactRepository;
+    private final ConcurrentMap<Long, UserIndex> indexes;
+
+    public ContactSearchIndex(ContactRepository contactRepository,
+                              @Value("${search.index.max-users:1000}") long maxUsers,
+                              @Value("${search.index.idle-timeout:30m}") Duration idleTimeout) {
+        this.contactRepository = contactRepository;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(idleTimeout)
+                .<Long, UserIndex>build()
+                .asMap();
+    }
+
+    /**
+     * Returns the ids of contacts matching every token of the query, at most {@code limit} of
+     * them, the first by first and last name.
+     */
+    public List<Long> search(Long userId, String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return indexFor(userId).search(tokens, limit);
+    }
+
+    /**
+     * Adds or re-indexes a contact. Partitions that were never loaded are left alone,
+     * they will pick the contact up when they are built.
+     */
+    public void put(Long userId, Contact contact) {
+        UserIndex index = indexes.get(userId);
+        if (index != null) {
+            index.put(contact.getId(), termsOf(contact), Name.of(contact));
+        }
+    }
+
+    public void remove(Long userId, Long contactId) {
+        UserIndex index = indexes.get(userId);
+        if (index != null) {
+            index.remove(contactId);
+        }
+    }
+
+    private UserIndex indexFor(Long userId) {
+        UserIndex existing = indexes.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+
+        // Publish the partition with its write lock held, so concurrent writes and searches
+        // wait for the initial load instead of racing it
+        UserIndex fresh = new UserIndex();
+        fresh.lock.writeLock().lock();
+        try {
+            existing = indexes.putIfAbsent(userId, fresh);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                for (Contact contact : contactRepository.findByUserId(userId)) {
+                    fresh.putLocked(contact.getId(), termsOf(contact), Name.of(contact));
+                }
+            } catch (RuntimeException e) {
+                indexes.remove(userId, fresh);
+                throw e;
+            }
+            return fresh;
+        } finally {
+            fresh.lock.writeLock().unlock();
+        }
+    }
+
+    static Set<String> termsOf(Contact contact) {
+        Set<String> terms = new HashSet<>(tokenize(contact.getFirstName()));
+        terms.addAll(tokenize(contact.getLastName()));
+        terms.addAll(tokenize(contact.getTitle()));
+
+        for (EmailAddress email : contact.getEmails()) {
+            if (email.getEmail() != null) {
+                terms.add(email.getEmail().toLowerCase());
+                terms.addAll(tokenize(email.getEmail()));
+            }
+        }
+
+        for (PhoneNumber phone : contact.getPhoneNumbers()) {
+            String digits = digitsOf(phone.getNumber());
+            for (int i = 0; i < digits.length(); i++) {
+                terms.add(digits.substring(i));
+            }
+        }
+        return terms;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String digitsOf(String number) {
+        if (number == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(number.length());
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private record Name(String first, String last) {
+
+        static Name of(Contact contact) {
+            return new Name(contact.getFirstName(), contact.getLastName());
+        }
+    }
+
+    private static final class UserIndex {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+        private final Map<Long, Set<String>> termsByContact = new HashMap<>();
+        private final Map<Long, Name> names = new HashMap<>();
+
+        List<Long> search(List<String> tokens, int limit) {
+            lock.readLock().lock();
+            try {
+                Set<Long> matches = null;
+                for (String token : tokens) {
+                    Set<Long> tokenMatches = new HashSet<>();
+                    for (Set<Long> ids : postings.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                        tokenMatches.addAll(ids);
+                    }
+                    if (matches == null) {
+                        matches = tokenMatches;
+                    } else {
+                        matches.retainAll(tokenMatches);
+                    }
+                    if (matches.isEmpty()) {
+                        return List.of();
+                    }
+                }
+                // Cut by name, not id, so the page is the first matches alphabetically
+                Comparator<Long> byName = Comparator.comparing(names::get, NAME_ORDER);
+                return matches.stream().sorted(byName.thenComparing(Comparator.naturalOrder())).limit(limit).toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void put(Long contactId, Set<String> terms, Name name) {
+            lock.writeLock().lock();
+            try {
+                putLocked(contactId, terms, name);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long contactId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(contactId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void putLocked(Long contactId, Set<String> terms, Name name) {
+            removeLocked(contactId);
+            for (String term : terms) {
+                postings.computeIfAbsent(term, t -> new LinkedHashSet<>()).add(contactId);
+            }
+            termsByContact.put(contactId, terms);
+            names.put(contactId, name);
+        }
+
+        private void removeLocked(Long contactId) {
+            names.remove(contactId);
+            Set<String> previous = termsByContact.remove(contactId);
+            if (previous == null) {
+                return;
+            }
+            for (String term : previous) {
+                Set<Long> ids = postings.get(term);
+                if (ids != null) {
+                    ids.remove(contactId);
+                    if (ids.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+}
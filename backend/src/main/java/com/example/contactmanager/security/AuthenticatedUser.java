@@ -0,0 +1,7 @@
+package com.example.contactmanager.security;
+
+/**
+ * Principal set by {@link JwtFilter}; carries the user id so handlers don't have to look it up.
+ */
+public record AuthenticatedUser(Long id, String email) {
+}
@@ -5,24 +5,44 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-
 import java.io.IOException;
 import java.util.Collections;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
-    @Autowired
-    private JwtUtil jwtUtil;
+    private static final Logger log = LoggerFactory.getLogger(JwtFilter.class);
+
+    private final JwtUtil jwtUtil;
+    private final UserLookupCache userLookupCache;
+    private final MeterRegistry meterRegistry;
+    private final Timer verifySuccess;
+    private final Timer verifyFailure;
+
+    public JwtFilter(JwtUtil jwtUtil, UserLookupCache userLookupCache, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.userLookupCache = userLookupCache;
+        this.meterRegistry = meterRegistry;
+        this.verifySuccess = verifyTimer("success");
+        this.verifyFailure = verifyTimer("failure");
+    }
+
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("jwt.verify")
+                .description("Time to verify a bearer token, including verified-token cache hits")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,49 +52,46 @@ public class JwtFilter extends OncePerRequestFilter {
         // Skip JWT processing for login and register endpoints
         String requestPath = request.getRequestURI();
         if (requestPath.equals("/api/users/login") || requestPath.equals("/api/users/register")) {
-            System.out.println("Skipping JWT filter for: " + requestPath);
             filterChain.doFilter(request, response);
             return;
         }
 
         final String authHeader = request.getHeader("Authorization");
-        System.out.println("=== JWT Filter Debug ===");
-        System.out.println("Request URL: " + request.getRequestURL());
-        System.out.println("Auth Header: " + authHeader);
 
         String jwtToken = null;
         String email = null;
+        Long userId = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             jwtToken = authHeader.substring(7);
-            System.out.println("JWT Token extracted: " + jwtToken.substring(0, Math.min(20, jwtToken.length())) + "...");
+            Timer.Sample sample = Timer.start(meterRegistry);
             try {
-                Claims claims = Jwts.parserBuilder()
-                        .setSigningKey(jwtUtil.getKey())  // Use key from JwtUtil
-                        .build()
-                        .parseClaimsJws(jwtToken)
-                        .getBody();
-
-                email = claims.getSubject();
-                System.out.println("Email extracted from token: " + email);
+                // Repeat tokens are answered from JwtUtil's verified-token cache
+                JwtUtil.VerifiedToken verified = jwtUtil.verify(jwtToken);
+                email = verified.email();
+                userId = verified.userId();
+                sample.stop(verifySuccess);
 
             } catch (Exception e) {
-                System.out.println("Invalid JWT token: " + e.getMessage());
-                e.printStackTrace();
+                sample.stop(verifyFailure);
+                // Never log the token itself
+                log.debug("Rejected JWT for {}: {}", requestPath, e.getMessage());
             }
-        } else {
-            System.out.println("No Bearer token found in Authorization header");
         }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // Tokens issued before the id claim existed fall back to the (cached) email lookup
+        if (email != null && userId == null) {
+            UserProfile profile = userLookupCache.find(email);
+            userId = profile != null ? profile.id() : null;
+        }
+
+        if (email != null && userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(email, null, Collections.emptyList());
+                    new UsernamePasswordAuthenticationToken(new AuthenticatedUser(userId, email), null, Collections.emptyList());
 
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authToken);
-            System.out.println("Authentication set for user: " + email);
-        } else {
-            System.out.println("No authentication set. Email: " + email);
+            log.debug("Authenticated user {} for {}", userId, requestPath);
         }
 
         filterChain.doFilter(request, response);
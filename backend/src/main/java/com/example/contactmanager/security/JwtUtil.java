@@ -1,12 +1,23 @@
 package com.example.contactmanager.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
@@ -14,31 +25,99 @@ public class JwtUtil {
     // Use a long secret key - keep it safe and same every app start
     private static final String SECRET = "replace_this_with_a_very_long_and_secure_secret_key_which_should_be_at_least_256_bits_long";
 
+    // Claim carrying the user id, so JwtFilter can build the principal without a database lookup
+    public static final String USER_ID_CLAIM = "uid";
+
+    // Upper bound on remembered tokens; each entry is a hash plus subject, id and expiry
+    private static final int VERIFIED_CACHE_SIZE = 10_000;
+
     // Create Key from secret string bytes using HMAC SHA-256
     private final Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
 
+    // Parsers are immutable and thread-safe, so build it once
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(key)
+            .build();
+
+    // Tokens already verified, keyed by SHA-256 of the token; entries expire with the token
+    private final Cache<String, VerifiedToken> verified = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_CACHE_SIZE)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(String hash, VerifiedToken token, long currentTime) {
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiresAt() - System.currentTimeMillis()));
+                }
+
+                @Override
+                public long expireAfterUpdate(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+                    return expireAfterCreate(hash, token, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
     private final long expirationMillis = 24 * 60 * 60 * 1000; // 1 day
 
-    public String generateToken(String email) {
+    /**
+     * Subject, user id and expiry (epoch millis) of a token whose signature has been checked.
+     */
+    public record VerifiedToken(String email, Long userId, long expiresAt) {
+    }
+
+    public String generateToken(String email, Long userId) {
         return Jwts.builder()
                 .setSubject(email)
+                .claim(USER_ID_CLAIM, userId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationMillis))
                 .signWith(key)
                 .compact();
     }
 
+    /**
+     * Verifies the token. A token seen before is answered from the cache without checking
+     * the signature or decoding the claims again, until it expires.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public VerifiedToken verify(String token) {
+        String hash = hash(token);
+        VerifiedToken cached = verified.getIfPresent(hash);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached;
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        VerifiedToken result = new VerifiedToken(claims.getSubject(), claims.get(USER_ID_CLAIM, Long.class),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+        // Tokens without an expiry are verified every time rather than cached forever
+        if (expiration != null) {
+            verified.put(hash, result);
+        }
+        return result;
+    }
+
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).email();
     }
 
     // Expose the key for use in JwtFilter
     public Key getKey() {
         return key;
     }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,148 @@
+package com.example.contactmanager.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing and verification on a small, bounded pool of platform threads.
+ *
+ * BCrypt is deliberately CPU-bound. Request threads are virtual and unbounded, so hashing
+ * on them during a login storm would pile every login onto the carrier threads at once
+ * and stall all other requests. Here at most {@code security.password.hash-threads}
+ * hashes run at a time and at most {@code security.password.queue-capacity} wait;
+ * beyond that the caller gets a {@link RejectedExecutionException} right away (a 503 to
+ * the client) instead of queueing without bound.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer queueWait;
+    private final Timer verifyTime;
+    private final Timer encodeTime;
+    private final Counter rejected;
+
+    // Verified against for unknown users, so a miss costs as much as a wrong password
+    private final String unknownUserHash;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                          @Value("${security.password.hash-threads:0}") int threads,
+                          @Value("${security.password.queue-capacity:256}") int queueCapacity,
+                          @Value("${security.password.timeout:5s}") Duration timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+
+        // Hashing is pure CPU; more threads than cores only adds contention
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hash-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes running")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("auth.password.queue.wait")
+                .description("Time a password hash waited for a worker")
+                .register(meterRegistry);
+        this.verifyTime = hashTimer(meterRegistry, "verify");
+        this.encodeTime = hashTimer(meterRegistry, "encode");
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Password hashes refused because the queue was full")
+                .register(meterRegistry);
+
+        this.unknownUserHash = passwordEncoder.encode("unknown-user");
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("Time to hash or verify a password on a worker")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether {@code rawPassword} matches {@code encodedPassword}. A null encoded password
+     * (unknown user) is checked against a dummy hash and never matches.
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            submit(verifyTime, () -> passwordEncoder.matches(rawPassword, unknownUserHash));
+            return false;
+        }
+        return submit(verifyTime, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(String rawPassword) {
+        return submit(encodeTime, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Whether a stored hash uses an outdated scheme or cost and should be replaced after
+     * the next successful login. Cheap, runs on the caller.
+     */
+    public boolean needsUpgrade(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Timer hashTime, Callable<T> hash) {
+        long queuedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return hashTime.recordCallable(hash);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+
+        try {
+            // Parks the (virtual) request thread; it holds no carrier while waiting
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            rejected.increment();
+            throw new RejectedExecutionException("Password hashing timed out", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
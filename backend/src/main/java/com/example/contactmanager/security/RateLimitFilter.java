@@ -0,0 +1,164 @@
+package com.example.contactmanager.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client request rate limiting, ahead of authentication.
+ *
+ * Clients are keyed by the email in a valid bearer token, otherwise by remote address.
+ * Each (route, client) pair has one bucket, implemented as GCRA: the bucket is a single
+ * "theoretical arrival time" advanced by compare-and-set, so concurrent requests never
+ * take a lock and requests of different clients never touch the same memory. A bucket
+ * that has been full for {@code idle-timeout} behaves exactly like a new one and is
+ * dropped by a periodic sweep, which bounds the map to recently active clients.
+ * Rejected requests get 429 with Retry-After.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    private final JwtUtil jwtUtil;
+    private final boolean enabled;
+    private final List<Limit> limits;
+    private final long idleNanos;
+    private final Map<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(JwtUtil jwtUtil, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.enabled = properties.enabled();
+        this.idleNanos = properties.idleTimeout().toNanos();
+        this.limits = properties.routes().stream()
+                .map(route -> new Limit(route,
+                        route.period().toNanos() / route.limit(),
+                        route.period().toNanos(),
+                        Counter.builder("http.server.requests.throttled")
+                                .description("Requests rejected with 429 by the rate limiter")
+                                .tag("route", route.name())
+                                .register(meterRegistry)))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || limits.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Limit limit = limitFor(request.getRequestURI());
+        if (limit == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        BucketKey key = new BucketKey(limit.route().name(), clientOf(request));
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+        }
+
+        long waitNanos = bucket.acquire(now, limit.intervalNanos(), limit.windowNanos());
+        if (waitNanos > 0) {
+            limit.throttled().increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            response.setContentType("text/plain");
+            response.getWriter().write("Too many requests");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Limit limitFor(String path) {
+        for (Limit limit : limits) {
+            if (PATHS.match(limit.route().path(), path)) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    // The principal if the token is valid (usually a verified-token cache hit), otherwise
+    // the address; behind a proxy set server.forward-headers-strategy so this is the client's
+    private String clientOf(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                return "user:" + jwtUtil.verify(authHeader.substring(7)).email();
+            } catch (Exception e) {
+                // Falls through; JwtFilter deals with the bad token
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    @Scheduled(fixedDelayString = "${security.rate-limit.sweep-interval:1m}")
+    void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.idleFor(now) > idleNanos);
+    }
+
+    private record Limit(RateLimitProperties.Route route, long intervalNanos, long windowNanos, Counter throttled) {
+    }
+
+    private record BucketKey(String route, String client) {
+    }
+
+    /**
+     * Generic cell rate algorithm: each request moves the theoretical arrival time (TAT)
+     * one interval forward; a request is refused if that would put the TAT more than one
+     * window ahead of now. Equivalent to a token bucket of window/interval tokens.
+     */
+    private static final class Bucket {
+
+        private final AtomicLong tat;
+
+        Bucket(long now) {
+            this.tat = new AtomicLong(now);
+        }
+
+        // 0 if admitted, otherwise nanoseconds until a request would be
+        long acquire(long now, long intervalNanos, long windowNanos) {
+            while (true) {
+                long current = tat.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long ahead = next - now;
+                if (ahead > windowNanos) {
+                    return ahead - windowNanos;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        // How long the bucket has been full; negative while it is still refilling
+        long idleFor(long now) {
+            return now - tat.get();
+        }
+    }
+}
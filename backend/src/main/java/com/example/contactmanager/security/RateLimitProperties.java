@@ -0,0 +1,33 @@
+package com.example.contactmanager.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Request rate limits, bound from {@code security.rate-limit.*}. A request is counted
+ * against the first route whose path pattern matches it; requests matching no route are
+ * not limited.
+ */
+@ConfigurationProperties("security.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        // A client's bucket is dropped after it has been full (idle) this long
+        @DefaultValue("10m") Duration idleTimeout,
+        @DefaultValue List<Route> routes) {
+
+    /**
+     * At most {@code limit} requests per {@code period} per client, all of which may
+     * arrive at once; capacity then returns evenly over the period.
+     */
+    public record Route(String name, String path, int limit, @DefaultValue("1m") Duration period) {
+
+        public Route {
+            if (name == null || path == null || limit <= 0 || period.isZero() || period.isNegative()) {
+                throw new IllegalArgumentException("Rate limit routes need a name, a path, a positive limit and period");
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.contactmanager.security;
+
+import com.example.contactmanager.model.User;
+import com.example.contactmanager.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded, TTL-evicting cache from email to user profile, so resolving the authenticated
+ * user does not cost a findByEmail round trip on every request.
+ */
+@Component
+public class UserLookupCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserProfile> profiles;
+
+    public UserLookupCache(UserRepository userRepository,
+                           @Value("${security.user-cache.max-size:10000}") long maxSize,
+                           @Value("${security.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Returns the cached profile, loading it on a miss; null if no such user exists.
+     */
+    public UserProfile find(String email) {
+        // Loaded under the entry's lock: an invalidate() racing the load waits for it and
+        // then removes the result, so a profile read before a change is never cached after it
+        return profiles.get(email, key -> {
+            User user = userRepository.findByEmail(key);
+            return user != null ? UserProfile.of(user) : null;
+        });
+    }
+
+    public void invalidate(String email) {
+        profiles.invalidate(email);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.contactmanager.security;
+
+import com.example.contactmanager.model.User;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Immutable snapshot of a user's public fields, as cached by {@link UserLookupCache}.
+ */
+public record UserProfile(Long id, String name, String email, @JsonIgnore long version) {
+
+    public static UserProfile of(User user) {
+        return new UserProfile(user.getId(), user.getName(), user.getEmail(), user.getVersion());
+    }
+}
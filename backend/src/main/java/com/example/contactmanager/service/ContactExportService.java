@@ -0,0 +1,204 @@
+package com.example.contactmanager.service;
+
+import com.example.contactmanager.dto.ContactMapper;
+import com.example.contactmanager.model.Contact;
+import com.example.contactmanager.model.EmailAddress;
+import com.example.contactmanager.model.PhoneNumber;
+import com.example.contactmanager.repository.ContactRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's address book to an output stream as it is read from the database.
+ *
+ * Contacts and their emails and phone numbers come from one forward-only cursor, grouped
+ * by contact id. Each contact is assembled from its rows as a detached object, written
+ * and dropped, so heap use stays flat regardless of the number of contacts, and no other
+ * statement runs on the connection while the cursor is open.
+ */
+@Service
+public class ContactExportService {
+
+    // Contacts written between flushes of the writer
+    private static final int WINDOW = 50;
+
+    // Row kinds of ContactRepository.streamExportRowsByUserId
+    private static final int CONTACT_ROW = 0;
+    private static final int EMAIL_ROW = 1;
+
+    private final ContactRepository contactRepository;
+    private final ObjectMapper objectMapper;
+    private final ContactMapper contactMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ContactExportService(ContactRepository contactRepository, ObjectMapper objectMapper,
+                                ContactMapper contactMapper, PlatformTransactionManager transactionManager) {
+        this.contactRepository = contactRepository;
+        this.objectMapper = objectMapper;
+        this.contactMapper = contactMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void export(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            // Same columns the bulk import reads
+            writer.write("firstName,lastName,title,emails,phoneNumbers\r\n");
+        }
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = contactRepository.streamExportRowsByUserId(userId)) {
+                    Contact contact = null;
+                    int written = 0;
+                    Iterator<Object[]> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        Object[] row = iterator.next();
+                        int kind = ((Number) row[1]).intValue();
+                        if (kind == CONTACT_ROW) {
+                            if (contact != null) {
+                                write(contact, format, writer);
+                                if (++written % WINDOW == 0) {
+                                    writer.flush();
+                                }
+                            }
+                            contact = contactOf(row);
+                        } else if (kind == EMAIL_ROW) {
+                            EmailAddress email = new EmailAddress();
+                            email.setId(((Number) row[2]).longValue());
+                            email.setLabel((String) row[3]);
+                            email.setEmail((String) row[4]);
+                            contact.addEmail(email);
+                        } else {
+                            PhoneNumber phone = new PhoneNumber();
+                            phone.setId(((Number) row[2]).longValue());
+                            phone.setLabel((String) row[3]);
+                            phone.setNumber((String) row[4]);
+                            contact.addPhoneNumber(phone);
+                        }
+                    }
+                    if (contact != null) {
+                        write(contact, format, writer);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static Contact contactOf(Object[] row) {
+        Contact contact = new Contact();
+        contact.setId(((Number) row[0]).longValue());
+        contact.setFirstName((String) row[3]);
+        contact.setLastName((String) row[4]);
+        contact.setTitle((String) row[5]);
+        return contact;
+    }
+
+    private void write(Contact contact, ExportFormat format, Writer writer) throws IOException {
+        switch (format) {
+            case NDJSON -> {
+                writer.write(objectMapper.writeValueAsString(contactMapper.toResponse(contact)));
+                writer.write('\n');
+            }
+            case CSV -> writeCsv(contact, writer);
+            case VCF -> writeVCard(contact, writer);
+        }
+    }
+
+    private static void writeCsv(Contact contact, Writer writer) throws IOException {
+        StringBuilder emails = new StringBuilder();
+        for (EmailAddress email : contact.getEmails()) {
+            appendEntry(emails, email.getLabel(), email.getEmail());
+        }
+        StringBuilder phones = new StringBuilder();
+        for (PhoneNumber phone : contact.getPhoneNumbers()) {
+            appendEntry(phones, phone.getLabel(), phone.getNumber());
+        }
+
+        writer.write(csvField(contact.getFirstName()));
+        writer.write(',');
+        writer.write(csvField(contact.getLastName()));
+        writer.write(',');
+        writer.write(csvField(contact.getTitle()));
+        writer.write(',');
+        writer.write(csvField(emails.toString()));
+        writer.write(',');
+        writer.write(csvField(phones.toString()));
+        writer.write("\r\n");
+    }
+
+    private static void appendEntry(StringBuilder cell, String label, String value) {
+        if (value == null) {
+            return;
+        }
+        if (!cell.isEmpty()) {
+            cell.append(';');
+        }
+        if (label != null && !label.isEmpty()) {
+            cell.append(label).append(':');
+        }
+        cell.append(value);
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void writeVCard(Contact contact, Writer writer) throws IOException {
+        String first = vCardText(contact.getFirstName());
+        String last = vCardText(contact.getLastName());
+
+        writer.write("BEGIN:VCARD\r\nVERSION:3.0\r\n");
+        writer.write("N:" + last + ";" + first + ";;;\r\n");
+        writer.write("FN:" + (first + " " + last).trim() + "\r\n");
+        if (contact.getTitle() != null) {
+            writer.write("TITLE:" + vCardText(contact.getTitle()) + "\r\n");
+        }
+        for (EmailAddress email : contact.getEmails()) {
+            writer.write("EMAIL" + vCardType(email.getLabel()) + ":" + vCardText(email.getEmail()) + "\r\n");
+        }
+        for (PhoneNumber phone : contact.getPhoneNumbers()) {
+            writer.write("TEL" + vCardType(phone.getLabel()) + ":" + vCardText(phone.getNumber()) + "\r\n");
+        }
+        writer.write("END:VCARD\r\n");
+    }
+
+    private static String vCardType(String label) {
+        return label == null || label.isBlank() ? "" : ";TYPE=" + label.replaceAll("[^A-Za-z0-9-]", "");
+    }
+
+    private static String vCardText(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\")
+                .replace(",", "\\,")
+                .replace(";", "\\;")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.contactmanager.service;
+
+/**
+ * The independently editable parts of a contact, the unit of conflict detection for
+ * concurrent edits. Emails and phone numbers each count as one field.
+ */
+public enum ContactField {
+    FIRST_NAME,
+    LAST_NAME,
+    TITLE,
+    EMAILS,
+    PHONE_NUMBERS
+}
@@ -0,0 +1,323 @@
+package com.example.contactmanager.service;
+
+import com.example.contactmanager.model.Contact;
+import com.example.contactmanager.model.EmailAddress;
+import com.example.contactmanager.model.PhoneNumber;
+import com.example.contactmanager.model.User;
+import com.example.contactmanager.search.ContactSearchIndex;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams contacts from a JSON array or CSV body into the database in chunks.
+ *
+ * Rows are parsed one at a time, persisted through Hibernate's JDBC batching and the
+ * persistence context is flushed and cleared every {@code contacts.import.flush-interval}
+ * rows, so memory use does not grow with the size of the upload. Invalid rows are
+ * skipped and reported; a chunk that fails in the database is reported as a whole.
+ */
+@Service
+public class ContactImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactImportService.class);
+    private static final int MAX_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final TransactionTemplate transactionTemplate;
+    private final ContactSearchIndex searchIndex;
+    private final int flushInterval;
+    private final int maxReportedErrors;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ContactImportService(ObjectMapper objectMapper,
+                                TransactionTemplate transactionTemplate,
+                                ContactSearchIndex searchIndex,
+                                @Value("${contacts.import.flush-interval:500}") int flushInterval,
+                                @Value("${contacts.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.searchIndex = searchIndex;
+        this.flushInterval = flushInterval;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Imports a JSON array of contacts shaped like the body of POST /api/contacts.
+     */
+    public ImportResult importJson(Long userId, InputStream body) throws IOException {
+        Batch batch = new Batch(userId);
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of contacts");
+            }
+
+            long row = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw batch.malformed("Unterminated JSON array");
+                }
+                row++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    batch.reject(row, "Expected a contact object");
+                    continue;
+                }
+                // One element at a time; a type mismatch only costs that row
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    batch.add(row, toContact(objectMapper.treeToValue(node, ContactRow.class)));
+                } catch (IOException | IllegalArgumentException e) {
+                    batch.reject(row, e.getMessage());
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw batch.malformed("Unexpected content after the JSON array");
+            }
+        }
+        return batch.finish();
+    }
+
+    /**
+     * Imports CSV with a header row. Recognised columns are firstName, lastName, title, emails
+     * and phoneNumbers; multiple emails or numbers are separated by ';', each optionally
+     * prefixed with "label:".
+     */
+    public ImportResult importCsv(Long userId, InputStream body) throws IOException {
+        Batch batch = new Batch(userId);
+        try (MappingIterator<String[]> rows = csvMapper.readerFor(String[].class)
+                .with(CsvParser.Feature.WRAP_AS_ARRAY)
+                .readValues(body)) {
+            if (!rows.hasNextValue()) {
+                return batch.finish();
+            }
+
+            Map<String, Integer> columns = new HashMap<>();
+            String[] header = rows.nextValue();
+            for (int i = 0; i < header.length; i++) {
+                columns.put(header[i].trim(), i);
+            }
+
+            long row = 0;
+            while (rows.hasNextValue()) {
+                row++;
+                String[] values = rows.nextValue();
+                try {
+                    ContactRow contactRow = new ContactRow(
+                            column(values, columns, "firstName"),
+                            column(values, columns, "lastName"),
+                            column(values, columns, "title"),
+                            splitEntries(column(values, columns, "emails"), EmailRow::new),
+                            splitEntries(column(values, columns, "phoneNumbers"), PhoneRow::new));
+                    batch.add(row, toContact(contactRow));
+                } catch (IllegalArgumentException e) {
+                    batch.reject(row, e.getMessage());
+                }
+            }
+        }
+        return batch.finish();
+    }
+
+    /**
+     * Imports rows that are already parsed, such as generated seed data.
+     */
+    ImportResult importRows(Long userId, Iterator<ContactRow> rows) {
+        Batch batch = new Batch(userId);
+        long row = 0;
+        while (rows.hasNext()) {
+            row++;
+            try {
+                batch.add(row, toContact(rows.next()));
+            } catch (IllegalArgumentException e) {
+                batch.reject(row, e.getMessage());
+            }
+        }
+        return batch.finish();
+    }
+
+    private static Contact toContact(ContactRow row) {
+        if (isBlank(row.firstName()) && isBlank(row.lastName())) {
+            throw new IllegalArgumentException("firstName or lastName is required");
+        }
+
+        Contact contact = new Contact();
+        contact.setFirstName(checked("firstName", row.firstName()));
+        contact.setLastName(checked("lastName", row.lastName()));
+        contact.setTitle(checked("title", row.title()));
+
+        if (row.emails() != null) {
+            for (EmailRow emailRow : row.emails()) {
+                if (!isBlank(emailRow.email())) {
+                    String value = checked("email", emailRow.email().trim());
+                    if (value.indexOf('@') < 1) {
+                        throw new IllegalArgumentException("Invalid email: " + value);
+                    }
+                    EmailAddress email = new EmailAddress();
+                    email.setLabel(checked("label", emailRow.label()));
+                    email.setEmail(value);
+                    contact.addEmail(email);
+                }
+            }
+        }
+
+        if (row.phoneNumbers() != null) {
+            for (PhoneRow phoneRow : row.phoneNumbers()) {
+                if (!isBlank(phoneRow.number())) {
+                    PhoneNumber phone = new PhoneNumber();
+                    phone.setLabel(checked("label", phoneRow.label()));
+                    phone.setNumber(checked("number", phoneRow.number().trim()));
+                    contact.addPhoneNumber(phone);
+                }
+            }
+        }
+        return contact;
+    }
+
+    private static String checked(String field, String value) {
+        if (value != null && value.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException(field + " is longer than " + MAX_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static String column(String[] values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.length || values[index].isEmpty()) {
+            return null;
+        }
+        return values[index];
+    }
+
+    private static <T> List<T> splitEntries(String cell, EntryFactory<T> factory) {
+        List<T> entries = new ArrayList<>();
+        if (cell == null) {
+            return entries;
+        }
+        for (String entry : cell.split(";")) {
+            int colon = entry.indexOf(':');
+            entries.add(colon > 0
+                    ? factory.create(entry.substring(0, colon).trim(), entry.substring(colon + 1))
+                    : factory.create(null, entry));
+        }
+        return entries;
+    }
+
+    private interface EntryFactory<T> {
+        T create(String label, String value);
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ContactRow(String firstName, String lastName, String title,
+                      List<EmailRow> emails, List<PhoneRow> phoneNumbers) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record EmailRow(String label, String email) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record PhoneRow(String label, String number) {
+    }
+
+    /**
+     * Accumulates parsed contacts and writes them one chunk per transaction.
+     */
+    private final class Batch {
+
+        private final Long userId;
+        private final List<Contact> pending = new ArrayList<>();
+        private final List<Long> pendingRows = new ArrayList<>();
+        private final List<ImportResult.RowError> errors = new ArrayList<>();
+        private int imported;
+        private int failed;
+
+        Batch(Long userId) {
+            this.userId = userId;
+        }
+
+        void add(long row, Contact contact) {
+            pending.add(contact);
+            pendingRows.add(row);
+            if (pending.size() >= flushInterval) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportResult.RowError(row, message));
+            }
+        }
+
+        // Chunks already committed stay; say so, as a retry of the whole body would duplicate them
+        IllegalArgumentException malformed(String reason) {
+            return new IllegalArgumentException(imported > 0
+                    ? reason + "; the first " + imported + " contacts were already imported"
+                    : reason);
+        }
+
+        ImportResult finish() {
+            flush();
+            return new ImportResult(imported, failed, errors);
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    User owner = entityManager.getReference(User.class, userId);
+                    for (Contact contact : pending) {
+                        contact.setUser(owner);
+                        entityManager.persist(contact);
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                imported += pending.size();
+                for (Contact contact : pending) {
+                    searchIndex.put(userId, contact);
+                }
+            } catch (RuntimeException e) {
+                // The database's message stays in the log, it is not for the client
+                log.error("Import chunk of {} contacts failed: userId={}", pending.size(), userId, e);
+                entityManager.clear();
+                for (Long row : pendingRows) {
+                    reject(row, "Not saved: database error");
+                }
+            }
+            pending.clear();
+            pendingRows.clear();
+        }
+    }
+}
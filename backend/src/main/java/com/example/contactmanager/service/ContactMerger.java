@@ -0,0 +1,230 @@
+package com.example.contactmanager.service;
+
+import com.example.contactmanager.dto.ContactRequest;
+import com.example.contactmanager.dto.EmailDto;
+import com.example.contactmanager.dto.PhoneNumberDto;
+import com.example.contactmanager.model.Contact;
+import com.example.contactmanager.model.EmailAddress;
+import com.example.contactmanager.model.PhoneNumber;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Applies a {@link ContactRequest} to a {@link Contact}, touching only what actually changed.
+ *
+ * Scalar fields are set only when their value differs. Emails and phone numbers are diffed
+ * against the existing rows: entries are matched by id first, then by identical label and
+ * value, and any leftover existing row is updated in place before new rows are inserted or
+ * old ones removed. Editing a contact therefore no longer deletes and re-inserts every child row.
+ */
+@Component
+public class ContactMerger {
+
+    private static final ChildAccess<EmailAddress> EMAILS = new ChildAccess<>(
+            EmailAddress::getId, EmailAddress::getLabel, EmailAddress::setLabel,
+            EmailAddress::getEmail, EmailAddress::setEmail, EmailAddress::new);
+
+    private static final ChildAccess<PhoneNumber> PHONE_NUMBERS = new ChildAccess<>(
+            PhoneNumber::getId, PhoneNumber::getLabel, PhoneNumber::setLabel,
+            PhoneNumber::getNumber, PhoneNumber::setNumber, PhoneNumber::new);
+
+    /**
+     * Applies {@code request} to {@code contact}. When {@code partial} is true (PATCH) null
+     * fields are left alone, otherwise (POST/PUT) they are cleared.
+     *
+     * @return whether anything was changed
+     */
+    public boolean apply(Contact contact, ContactRequest request, boolean partial) {
+        return apply(contact, request, fieldsOf(request, partial));
+    }
+
+    /**
+     * Applies exactly the given fields of {@code request}; a null value clears the field.
+     *
+     * @return whether anything was changed
+     */
+    public boolean apply(Contact contact, ContactRequest request, Set<ContactField> fields) {
+        boolean changed = false;
+
+        if (fields.contains(ContactField.FIRST_NAME)) {
+            if (!Objects.equals(contact.getFirstName(), request.firstName())) {
+                contact.setFirstName(request.firstName());
+                changed = true;
+            }
+        }
+        if (fields.contains(ContactField.LAST_NAME)) {
+            if (!Objects.equals(contact.getLastName(), request.lastName())) {
+                contact.setLastName(request.lastName());
+                changed = true;
+            }
+        }
+        if (fields.contains(ContactField.TITLE)) {
+            if (!Objects.equals(contact.getTitle(), request.title())) {
+                contact.setTitle(request.title());
+                changed = true;
+            }
+        }
+
+        if (fields.contains(ContactField.EMAILS)) {
+            List<Entry> wanted = new ArrayList<>();
+            for (EmailDto email : orEmpty(request.emails())) {
+                addEntry(wanted, email.id(), email.label(), email.email());
+            }
+            changed |= merge(contact.getEmails(), wanted, EMAILS, contact::addEmail, contact::removeEmail);
+        }
+        if (fields.contains(ContactField.PHONE_NUMBERS)) {
+            List<Entry> wanted = new ArrayList<>();
+            for (PhoneNumberDto phone : orEmpty(request.phoneNumbers())) {
+                addEntry(wanted, phone.id(), phone.label(), phone.number());
+            }
+            changed |= merge(contact.getPhoneNumbers(), wanted, PHONE_NUMBERS,
+                    contact::addPhoneNumber, contact::removePhoneNumber);
+        }
+
+        // Child rows hang off inverse collections, so flag the contact itself for a new change version
+        if (changed) {
+            contact.touch();
+        }
+        return changed;
+    }
+
+    /**
+     * The fields a request writes: all of them for POST/PUT, the non-null ones for PATCH.
+     */
+    public static Set<ContactField> fieldsOf(ContactRequest request, boolean partial) {
+        if (!partial) {
+            return EnumSet.allOf(ContactField.class);
+        }
+        Set<ContactField> fields = EnumSet.noneOf(ContactField.class);
+        if (request.firstName() != null) {
+            fields.add(ContactField.FIRST_NAME);
+        }
+        if (request.lastName() != null) {
+            fields.add(ContactField.LAST_NAME);
+        }
+        if (request.title() != null) {
+            fields.add(ContactField.TITLE);
+        }
+        if (request.emails() != null) {
+            fields.add(ContactField.EMAILS);
+        }
+        if (request.phoneNumbers() != null) {
+            fields.add(ContactField.PHONE_NUMBERS);
+        }
+        return fields;
+    }
+
+    private static <E> List<E> orEmpty(List<E> list) {
+        return list == null ? List.of() : list;
+    }
+
+    // Blank values are dropped, as they always were
+    private static void addEntry(List<Entry> wanted, Long id, String label, String value) {
+        if (value != null && !value.trim().isEmpty()) {
+            wanted.add(new Entry(id, label, value.trim()));
+        }
+    }
+
+    private static <T> boolean merge(Set<T> current, List<Entry> wanted, ChildAccess<T> access,
+                                     Consumer<T> add, Consumer<T> remove) {
+        List<T> unmatched = new ArrayList<>(current);
+        Map<Entry, T> matches = new HashMap<>();
+
+        // 1. Same id
+        Map<Long, T> byId = new HashMap<>();
+        for (T child : unmatched) {
+            if (access.id().apply(child) != null) {
+                byId.put(access.id().apply(child), child);
+            }
+        }
+        for (Entry entry : wanted) {
+            T child = entry.id != null ? byId.remove(entry.id) : null;
+            if (child != null) {
+                matches.put(entry, child);
+                unmatched.remove(child);
+            }
+        }
+
+        // 2. Same label and value, for clients that don't send ids
+        for (Entry entry : wanted) {
+            if (matches.containsKey(entry)) {
+                continue;
+            }
+            for (Iterator<T> it = unmatched.iterator(); it.hasNext(); ) {
+                T child = it.next();
+                if (Objects.equals(access.label().apply(child), entry.label)
+                        && Objects.equals(access.value().apply(child), entry.value)) {
+                    matches.put(entry, child);
+                    it.remove();
+                    break;
+                }
+            }
+        }
+
+        boolean changed = false;
+        for (Entry entry : wanted) {
+            T child = matches.get(entry);
+            if (child == null && !unmatched.isEmpty()) {
+                // 3. Reuse a leftover row: one UPDATE instead of a DELETE plus an INSERT
+                child = unmatched.remove(0);
+            }
+            if (child == null) {
+                // 4. Genuinely new
+                child = access.factory().get();
+                access.setLabel().accept(child, entry.label);
+                access.setValue().accept(child, entry.value);
+                add.accept(child);
+                changed = true;
+                continue;
+            }
+            if (!Objects.equals(access.label().apply(child), entry.label)) {
+                access.setLabel().accept(child, entry.label);
+                changed = true;
+            }
+            if (!Objects.equals(access.value().apply(child), entry.value)) {
+                access.setValue().accept(child, entry.value);
+                changed = true;
+            }
+        }
+
+        // Whatever is left was removed by the client; orphanRemoval deletes it
+        for (T child : unmatched) {
+            remove.accept(child);
+            changed = true;
+        }
+        return changed;
+    }
+
+    // Identity semantics on purpose: two identical entries must map to two rows
+    private static final class Entry {
+        private final Long id;
+        private final String label;
+        private final String value;
+
+        Entry(Long id, String label, String value) {
+            this.id = id;
+            this.label = label;
+            this.value = value;
+        }
+    }
+
+    private record ChildAccess<T>(Function<T, Long> id,
+                                  Function<T, String> label,
+                                  BiConsumer<T, String> setLabel,
+                                  Function<T, String> value,
+                                  BiConsumer<T, String> setValue,
+                                  Supplier<T> factory) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.contactmanager.service;
+
+import com.example.contactmanager.dto.ContactChanges;
+import com.example.contactmanager.dto.ContactMapper;
+import com.example.contactmanager.dto.ContactResponse;
+import com.example.contactmanager.model.ContactTombstone;
+import com.example.contactmanager.repository.ContactRepository;
+import com.example.contactmanager.repository.ContactTombstoneRepository;
+import com.example.contactmanager.sync.ChangeRef;
+import com.example.contactmanager.sync.ChangeVersionGenerator;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental sync for offline clients: everything that changed in a user's address book
+ * after a given change version.
+ *
+ * Upserts and deletions are read from two index range scans (contact and tombstone by
+ * user and version), merged in version order and cut at {@code limit}. Only versions up
+ * to {@link ChangeVersionGenerator#safeVersion()} are returned, so a change whose
+ * transaction is still open is never skipped by the cursor handed out.
+ */
+@Service
+public class ContactSyncService {
+
+    private final ContactRepository contactRepository;
+    private final ContactTombstoneRepository tombstoneRepository;
+    private final ChangeVersionGenerator changeVersions;
+    private final ContactMapper contactMapper;
+
+    public ContactSyncService(ContactRepository contactRepository, ContactTombstoneRepository tombstoneRepository,
+                              ChangeVersionGenerator changeVersions, ContactMapper contactMapper) {
+        this.contactRepository = contactRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.changeVersions = changeVersions;
+        this.contactMapper = contactMapper;
+    }
+
+    /**
+     * Deletes a contact and leaves a tombstone for sync clients, in one transaction.
+     * Returns false if the user owns no such contact.
+     */
+    @Transactional
+    public boolean delete(Long contactId, Long userId) {
+        if (!contactRepository.deleteOwned(contactId, userId)) {
+            return false;
+        }
+        tombstoneRepository.save(new ContactTombstone(contactId, userId));
+        return true;
+    }
+
+    /**
+     * At most {@code limit} changes after version {@code since}, oldest first. Pass a
+     * negative {@code since} for a full sync.
+     */
+    @Transactional(readOnly = true)
+    public ContactChanges changesSince(Long userId, long since, int limit) {
+        long upTo = changeVersions.safeVersion();
+        if (upTo <= since) {
+            return new ContactChanges(List.of(), List.of(), since, false);
+        }
+
+        // One extra row from each side tells whether there is more after this page
+        Pageable window = PageRequest.of(0, limit + 1);
+        List<ChangeRef> upserted = contactRepository.findChangesByUserId(userId, since, upTo, window);
+        List<ChangeRef> deleted = tombstoneRepository.findChangesByUserId(userId, since, upTo, window);
+
+        List<Long> upsertIds = new ArrayList<>();
+        List<Long> deletions = new ArrayList<>();
+        long version = since;
+        int u = 0;
+        int d = 0;
+        while (upsertIds.size() + deletions.size() < limit && (u < upserted.size() || d < deleted.size())) {
+            // Versions are unique across both tables, so this is a plain merge
+            boolean takeUpsert = d == deleted.size()
+                    || (u < upserted.size() && upserted.get(u).changeVersion() < deleted.get(d).changeVersion());
+            ChangeRef change = takeUpsert ? upserted.get(u++) : deleted.get(d++);
+            (takeUpsert ? upsertIds : deletions).add(change.contactId());
+            version = change.changeVersion();
+        }
+        boolean hasMore = u < upserted.size() || d < deleted.size();
+
+        // A contact deleted since the scan is simply missing here; its tombstone comes in a later page
+        List<ContactResponse> upserts = contactMapper.toResponses(contactRepository.findAllWithDetails(upsertIds));
+        return new ContactChanges(upserts, deletions, version, hasMore);
+    }
+}
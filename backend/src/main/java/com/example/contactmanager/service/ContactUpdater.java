@@ -0,0 +1,184 @@
+package com.example.contactmanager.service;
+
+import com.example.contactmanager.dto.ContactRequest;
+import com.example.contactmanager.model.Contact;
+import com.example.contactmanager.repository.ContactRepository;
+import com.example.contactmanager.web.ETags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Updates a contact under optimistic locking, without losing concurrent edits.
+ *
+ * Each attempt reads and writes the contact in one transaction; the {@code @Version}
+ * check on flush detects a write that committed in between. On such a conflict the
+ * attempt is repeated against the fresh state, but only if the other write touched none
+ * of the fields this request changes; then just those fields are re-applied, so both
+ * edits survive. Overlapping edits end in CONFLICT rather than one silently winning.
+ * Attempts are bounded by {@code contacts.update.max-attempts} and spaced by a short
+ * random backoff, so a hot contact does not turn into a retry storm.
+ */
+@Service
+public class ContactUpdater {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactUpdater.class);
+
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator
+            .comparing(Entry::value)
+            .thenComparing(Entry::label, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final ContactRepository contactRepository;
+    private final ContactMerger contactMerger;
+    private final TransactionTemplate transaction;
+    private final int maxAttempts;
+
+    public ContactUpdater(ContactRepository contactRepository, ContactMerger contactMerger,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${contacts.update.max-attempts:3}") int maxAttempts) {
+        this.contactRepository = contactRepository;
+        this.contactMerger = contactMerger;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Applies {@code request} to the user's contact: all fields for PUT, the non-null ones
+     * when {@code partial} (PATCH). With {@code ifMatch} set the contact must be at the
+     * version it names when first read; a concurrent commit after that is merged as above.
+     */
+    public UpdateResult update(Long contactId, Long userId, ContactRequest request, boolean partial, String ifMatch) {
+        Set<ContactField> requested = ContactMerger.fieldsOf(request, partial);
+        Snapshot wanted = Snapshot.of(request);
+        Snapshot[] base = new Snapshot[1];
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                return transaction.execute(status -> {
+                    Contact contact = contactRepository.findByIdAndUserId(contactId, userId).orElse(null);
+                    if (contact == null) {
+                        return UpdateResult.of(UpdateResult.Status.NOT_FOUND, null);
+                    }
+
+                    Set<ContactField> fields = requested;
+                    if (base[0] == null) {
+                        if (ifMatch != null && !ETags.matches(ifMatch, ETags.of(contact.getId(), contact.getVersion()))) {
+                            return UpdateResult.of(UpdateResult.Status.PRECONDITION_FAILED, contact);
+                        }
+                        base[0] = Snapshot.of(contact);
+                    } else {
+                        // Someone committed since our first read: carry on only if their
+                        // change and ours are on different fields
+                        Set<ContactField> ours = base[0].differences(wanted, requested);
+                        Set<ContactField> theirs = base[0].differences(Snapshot.of(contact), EnumSet.allOf(ContactField.class));
+                        if (ours.stream().anyMatch(theirs::contains)) {
+                            return UpdateResult.of(UpdateResult.Status.CONFLICT, contact);
+                        }
+                        fields = ours;
+                    }
+
+                    if (!contactMerger.apply(contact, request, fields)) {
+                        return UpdateResult.of(UpdateResult.Status.UNCHANGED, contact);
+                    }
+                    // Version check now, inside the attempt; hibernate.order_updates writes the
+                    // contact row before its children, so concurrent edits lock in the same order
+                    contactRepository.flush();
+                    return UpdateResult.of(UpdateResult.Status.UPDATED, contact);
+                });
+            } catch (ConcurrencyFailureException e) {
+                // Stale version, or chosen as a deadlock victim
+                log.debug("Concurrent update of contact {}, attempt {} of {}", contactId, attempt, maxAttempts);
+                if (base[0] == null || !backOff(attempt)) {
+                    break;
+                }
+            }
+        }
+
+        Contact current = contactRepository.findByIdAndUserId(contactId, userId).orElse(null);
+        return current == null
+                ? UpdateResult.of(UpdateResult.Status.NOT_FOUND, null)
+                : UpdateResult.of(UpdateResult.Status.CONFLICT, current);
+    }
+
+    // Jittered and growing with the attempt; false if interrupted
+    private boolean backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L * attempt + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record Entry(String label, String value) {
+    }
+
+    /**
+     * The comparable content of a contact or request: scalars as they are, children as
+     * sorted (label, value) lists normalized like {@link ContactMerger} stores them.
+     */
+    private record Snapshot(String firstName, String lastName, String title, List<Entry> emails, List<Entry> phoneNumbers) {
+
+        static Snapshot of(Contact contact) {
+            return new Snapshot(contact.getFirstName(), contact.getLastName(), contact.getTitle(),
+                    entries(contact.getEmails(), email -> new Entry(email.getLabel(), email.getEmail())),
+                    entries(contact.getPhoneNumbers(), phone -> new Entry(phone.getLabel(), phone.getNumber())));
+        }
+
+        static Snapshot of(ContactRequest request) {
+            return new Snapshot(request.firstName(), request.lastName(), request.title(),
+                    entries(request.emails(), email -> new Entry(email.label(), email.email())),
+                    entries(request.phoneNumbers(), phone -> new Entry(phone.label(), phone.number())));
+        }
+
+        private static <T> List<Entry> entries(Collection<T> children, Function<T, Entry> toEntry) {
+            List<Entry> entries = new ArrayList<>();
+            if (children != null) {
+                for (T child : children) {
+                    Entry entry = toEntry.apply(child);
+                    // Blank values are dropped and values trimmed, as ContactMerger does
+                    if (entry.value() != null && !entry.value().trim().isEmpty()) {
+                        entries.add(new Entry(entry.label(), entry.value().trim()));
+                    }
+                }
+            }
+            entries.sort(ENTRY_ORDER);
+            return entries;
+        }
+
+        Set<ContactField> differences(Snapshot other, Set<ContactField> among) {
+            Set<ContactField> fields = EnumSet.noneOf(ContactField.class);
+            for (ContactField field : among) {
+                if (!Objects.equals(value(field), other.value(field))) {
+                    fields.add(field);
+                }
+            }
+            return fields;
+        }
+
+        private Object value(ContactField field) {
+            return switch (field) {
+                case FIRST_NAME -> firstName;
+                case LAST_NAME -> lastName;
+                case TITLE -> title;
+                case EMAILS -> emails;
+                case PHONE_NUMBERS -> phoneNumbers;
+            };
+        }
+    }
+}
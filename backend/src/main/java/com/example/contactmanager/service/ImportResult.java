@@ -0,0 +1,13 @@
+package com.example.contactmanager.service;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Only the first few row errors are reported, see
+ * {@code contacts.import.max-reported-errors}.
+ */
+public record ImportResult(int imported, int failed, List<RowError> errors) {
+
+    public record RowError(long row, String message) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.contactmanager.service;
+
+import com.example.contactmanager.model.User;
+import com.example.contactmanager.repository.UserRepository;
+import com.example.contactmanager.security.PasswordHasher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Fills an empty local database with {@code seed.users} users (user1@example.com ...,
+ * password "password") holding {@code seed.contacts-per-user} generated contacts each.
+ *
+ * Contacts go through {@link ContactImportService}, so seeding uses the same chunked,
+ * JDBC-batched write path as a bulk import. The generator is seeded with a constant,
+ * so every run produces the same data set.
+ */
+@Component
+@Profile("local")
+public class LocalDataSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalDataSeeder.class);
+
+    private static final String[] FIRST_NAMES = {"Ada", "Alan", "Grace", "Edsger", "Barbara", "Donald", "Margaret",
+            "Ken", "Frances", "Dennis", "Radia", "Linus", "Katherine", "John", "Sophie", "Tim"};
+    private static final String[] LAST_NAMES = {"Lovelace", "Turing", "Hopper", "Dijkstra", "Liskov", "Knuth",
+            "Hamilton", "Thompson", "Allen", "Ritchie", "Perlman", "Torvalds", "Johnson", "McCarthy", "Wilson"};
+    private static final String[] TITLES = {"Engineer", "Manager", "Analyst", "Director", "Consultant", null};
+    private static final String[] LABELS = {"work", "home", "mobile", "other"};
+
+    private final UserRepository userRepository;
+    private final ContactImportService importService;
+    private final PasswordHasher passwordHasher;
+    private final int users;
+    private final int contactsPerUser;
+
+    public LocalDataSeeder(UserRepository userRepository, ContactImportService importService,
+                           PasswordHasher passwordHasher,
+                           @Value("${seed.users:0}") int users,
+                           @Value("${seed.contacts-per-user:100}") int contactsPerUser) {
+        this.userRepository = userRepository;
+        this.importService = importService;
+        this.passwordHasher = passwordHasher;
+        this.users = users;
+        this.contactsPerUser = contactsPerUser;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (users <= 0 || userRepository.count() > 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        Random random = new Random(42);
+        // Hashed once for all users; sharing a salt is fine for local data
+        String password = passwordHasher.encode("password");
+        for (int u = 1; u <= users; u++) {
+            User user = userRepository.save(new User("User " + u, "user" + u + "@example.com", password));
+            importService.importRows(user.getId(), contacts(random, contactsPerUser));
+        }
+        log.info("Seeded {} users with {} contacts each in {} ms",
+                users, contactsPerUser, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Generated lazily, so large seeds never hold more than one import chunk in memory
+    private static Iterator<ContactImportService.ContactRow> contacts(Random random, int count) {
+        return new Iterator<>() {
+            private int generated;
+
+            @Override
+            public boolean hasNext() {
+                return generated < count;
+            }
+
+            @Override
+            public ContactImportService.ContactRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                generated++;
+                String first = pick(random, FIRST_NAMES);
+                String last = pick(random, LAST_NAMES);
+                String handle = (first + "." + last).toLowerCase() + generated;
+
+                return new ContactImportService.ContactRow(first, last, pick(random, TITLES),
+                        List.of(new ContactImportService.EmailRow(pick(random, LABELS), handle + "@example.com")),
+                        List.of(new ContactImportService.PhoneRow(pick(random, LABELS),
+                                String.format("+1 555 %03d %04d", random.nextInt(1000), random.nextInt(10000)))));
+            }
+        };
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
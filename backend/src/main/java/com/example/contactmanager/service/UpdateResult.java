@@ -0,0 +1,24 @@
+package com.example.contactmanager.service;
+
+import com.example.contactmanager.model.Contact;
+
+/**
+ * Outcome of {@link ContactUpdater#update}. {@code contact} is the stored state after the
+ * update, or the current state the update was refused against; null for NOT_FOUND.
+ */
+public record UpdateResult(Status status, Contact contact) {
+
+    public enum Status {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND,
+        // If-Match named a version other than the current one
+        PRECONDITION_FAILED,
+        // A concurrent edit changed a field this one writes
+        CONFLICT
+    }
+
+    static UpdateResult of(Status status, Contact contact) {
+        return new UpdateResult(status, contact);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.contactmanager.sync;
+
+/**
+ * A changed (or deleted) contact id and the version of that change.
+ */
+public record ChangeRef(Long contactId, long changeVersion) {
+}
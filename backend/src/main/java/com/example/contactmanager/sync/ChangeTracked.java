@@ -0,0 +1,10 @@
+package com.example.contactmanager.sync;
+
+/**
+ * An entity stamped with a change version by {@link ChangeVersionListener} whenever it is
+ * inserted or updated.
+ */
+public interface ChangeTracked {
+
+    void setChangeVersion(long changeVersion);
+}
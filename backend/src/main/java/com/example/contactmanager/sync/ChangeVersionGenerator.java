@@ -0,0 +1,136 @@
+package com.example.contactmanager.sync;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out strictly increasing change versions and knows which of them may still be
+ * uncommitted.
+ *
+ * Versions are taken from {@code change_version_seq} in blocks of 50 (the sequence
+ * increment) and handed out in memory, so they stay monotonic across restarts while
+ * costing one sequence call per 50 changes. A version stays "in flight" until the
+ * transaction that took it completes; {@link #safeVersion()} is the highest version below
+ * every in-flight one and no higher than the last one handed out, so a sync reader never
+ * hands out a cursor that skips a change which commits later. That guarantee holds for the writes of this instance only.
+ *
+ * Blocks are fetched on a connection of their own, never through the persistence context
+ * that is flushing the entity being stamped.
+ */
+@Component
+public class ChangeVersionGenerator {
+
+    private static final String SEQUENCE = "change_version_seq";
+    private static final int BLOCK_SIZE = 50;
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    // A lock rather than synchronized: a block refill does I/O and would pin a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private long next = 1;
+    private long blockEnd = 0;
+
+    public ChangeVersionGenerator(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Next version, tracked as in flight until the current transaction completes.
+     * Called from entity callbacks, inside the writing transaction.
+     */
+    public long next() {
+        long version;
+        boolean tracked = TransactionSynchronizationManager.isSynchronizationActive();
+        lock.lock();
+        try {
+            if (next > blockEnd) {
+                refill();
+            }
+            version = next++;
+            if (tracked) {
+                inFlight.add(version);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (tracked) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(version);
+                }
+            });
+        }
+        return version;
+    }
+
+    /**
+     * Highest version up to which every change is committed (or rolled back): below the
+     * oldest one in flight, else the last one handed out. Never above the versions taken
+     * before the call, so a version handed out afterwards can't be skipped by a reader
+     * that capped its range with it.
+     */
+    public long safeVersion() {
+        lock.lock();
+        try {
+            if (!inFlight.isEmpty()) {
+                return inFlight.first() - 1;
+            }
+            if (blockEnd == 0) {
+                // Nothing handed out since startup: the sequence says how far earlier runs got
+                refill();
+            }
+            return next - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Callers hold the lock
+    private void refill() {
+        long blockStart = nextSequenceValue();
+        next = blockStart;
+        blockEnd = blockStart + BLOCK_SIZE - 1;
+    }
+
+    private void release(long version) {
+        lock.lock();
+        try {
+            inFlight.remove(version);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Runs from entity callbacks mid-flush, where JPA allows no queries on the flushing
+    // EntityManager; a separate auto-commit connection also keeps the block when the
+    // writing transaction rolls back. Held for one statement, once per BLOCK_SIZE versions.
+    private long nextSequenceValue() {
+        String sql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(SEQUENCE);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Could not read " + SEQUENCE, e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.contactmanager.sync;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Stamps {@link ChangeTracked} entities with a fresh change version on every insert and
+ * update. Hibernate re-reads the entity state after the callback, so the stamp is part of
+ * the same INSERT or UPDATE statement.
+ */
+public class ChangeVersionListener {
+
+    // Resolved on first use: the listener is built with the EntityManagerFactory, which the
+    // generator itself depends on
+    private final ObjectProvider<ChangeVersionGenerator> versions;
+
+    public ChangeVersionListener(ObjectProvider<ChangeVersionGenerator> versions) {
+        this.versions = versions;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void stamp(Object entity) {
+        if (entity instanceof ChangeTracked tracked) {
+            tracked.setChangeVersion(versions.getObject().next());
+        }
+    }
+}
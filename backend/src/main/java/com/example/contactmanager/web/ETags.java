@@ -0,0 +1,67 @@
+package com.example.contactmanager.web;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Entity tags built from version numbers, and the If-None-Match / If-Match checks against them.
+ *
+ * The tags are weak: they name a stored version, not the bytes of one encoding of it, and
+ * Tomcat will not compress a response that carries a strong tag. Since a version is only
+ * ever written once, comparing them weakly for If-Match as well is still exact.
+ */
+public final class ETags {
+
+    // Browsers may store the response but must revalidate it every time; private because
+    // every response depends on the bearer token
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ETags() {}
+
+    /**
+     * A weak ETag ({@code W/"a-b-c"}) from the given version parts.
+     */
+    public static String of(Object... parts) {
+        StringBuilder tag = new StringBuilder("W/\"");
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                tag.append('-');
+            }
+            tag.append(parts[i]);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Whether an If-None-Match or If-Match header value matches {@code etag}: "*" or any
+     * listed tag, compared weakly.
+     */
+    public static boolean matches(String header, String etag) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 304 for a matching If-None-Match, carrying the tag and cache policy of a 200.
+     */
+    public static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .build();
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
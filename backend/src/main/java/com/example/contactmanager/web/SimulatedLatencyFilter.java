@@ -0,0 +1,56 @@
+package com.example.contactmanager.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Load-test aid for the local profile: an API request carrying X-Simulated-Latency-Ms blocks
+ * its request thread for that long before being handled, like a slow downstream call would.
+ * A platform thread stays occupied for the whole wait; a virtual thread unmounts.
+ * See loadtest/contacts-listing.js.
+ */
+@Component
+@Profile("local")
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class SimulatedLatencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Simulated-Latency-Ms";
+
+    private static final long MAX_LATENCY_MS = 10_000;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long latency;
+        try {
+            latency = Math.min(Math.max(Long.parseLong(request.getHeader(HEADER)), 0), MAX_LATENCY_MS);
+        } catch (NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid " + HEADER);
+            return;
+        }
+
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
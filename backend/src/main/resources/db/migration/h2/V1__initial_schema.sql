@@ -0,0 +1,44 @@
+-- H2 counterpart of sqlserver/V1 and V2, used by tests and the local profile. H2
+-- databases are only ever created by Flyway, so contact, email and phone ids start out
+-- on sequences and there is no IDENTITY conversion (and no V2) here.
+
+CREATE TABLE users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    name     VARCHAR(255),
+    email    VARCHAR(255),
+    password VARCHAR(255),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uq_users_email UNIQUE (email)
+);
+
+CREATE SEQUENCE contact_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE email_address_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE phone_number_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE contact (
+    id         BIGINT NOT NULL,
+    first_name VARCHAR(255),
+    last_name  VARCHAR(255),
+    title      VARCHAR(255),
+    user_id    BIGINT,
+    CONSTRAINT pk_contact PRIMARY KEY (id),
+    CONSTRAINT fk_contact_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE email_address (
+    id         BIGINT NOT NULL,
+    label      VARCHAR(255),
+    email      VARCHAR(255),
+    contact_id BIGINT,
+    CONSTRAINT pk_email_address PRIMARY KEY (id),
+    CONSTRAINT fk_email_address_contact FOREIGN KEY (contact_id) REFERENCES contact (id)
+);
+
+CREATE TABLE phone_number (
+    id         BIGINT NOT NULL,
+    label      VARCHAR(255),
+    number     VARCHAR(255),
+    contact_id BIGINT,
+    CONSTRAINT pk_phone_number PRIMARY KEY (id),
+    CONSTRAINT fk_phone_number_contact FOREIGN KEY (contact_id) REFERENCES contact (id)
+);
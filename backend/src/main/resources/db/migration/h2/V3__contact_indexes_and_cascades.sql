@@ -0,0 +1,16 @@
+-- H2 counterpart of sqlserver/V3. H2 has no INCLUDE columns, so the indexes are key-only.
+CREATE INDEX ix_contact_user_first_name ON contact (user_id, first_name, id);
+CREATE INDEX ix_contact_user_last_name ON contact (user_id, last_name, id);
+CREATE INDEX ix_contact_user_title ON contact (user_id, title, id);
+CREATE INDEX ix_contact_user_id ON contact (user_id, id);
+
+CREATE INDEX ix_email_address_contact ON email_address (contact_id, id);
+CREATE INDEX ix_phone_number_contact ON phone_number (contact_id, id);
+
+ALTER TABLE email_address DROP CONSTRAINT fk_email_address_contact;
+ALTER TABLE email_address ADD CONSTRAINT fk_email_address_contact
+    FOREIGN KEY (contact_id) REFERENCES contact (id) ON DELETE CASCADE;
+
+ALTER TABLE phone_number DROP CONSTRAINT fk_phone_number_contact;
+ALTER TABLE phone_number ADD CONSTRAINT fk_phone_number_contact
+    FOREIGN KEY (contact_id) REFERENCES contact (id) ON DELETE CASCADE;
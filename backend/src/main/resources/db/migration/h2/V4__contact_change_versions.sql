@@ -0,0 +1,16 @@
+-- H2 counterpart of sqlserver/V4. H2 databases are created fresh (local profile, tests),
+-- so there are no existing rows to number and the sequence starts at 1.
+ALTER TABLE contact ADD change_version BIGINT DEFAULT 0 NOT NULL;
+
+CREATE SEQUENCE change_version_seq START WITH 1 INCREMENT BY 50;
+
+CREATE INDEX ix_contact_user_change_version ON contact (user_id, change_version);
+
+CREATE TABLE contact_tombstone (
+    contact_id     BIGINT NOT NULL,
+    user_id        BIGINT NOT NULL,
+    change_version BIGINT NOT NULL,
+    CONSTRAINT pk_contact_tombstone PRIMARY KEY (contact_id)
+);
+
+CREATE INDEX ix_contact_tombstone_user_change_version ON contact_tombstone (user_id, change_version);
@@ -0,0 +1,3 @@
+-- H2 counterpart of sqlserver/V5.
+ALTER TABLE contact ADD version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,40 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update), with IDENTITY ids.
+-- Existing databases are baselined at this version; V2 moves contact, email and phone
+-- ids to pooled sequences, for them and for new databases alike.
+
+CREATE TABLE users (
+    id       BIGINT IDENTITY(1,1) NOT NULL,
+    name     VARCHAR(255),
+    email    VARCHAR(255),
+    password VARCHAR(255),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uq_users_email UNIQUE (email)
+);
+
+CREATE TABLE contact (
+    id         BIGINT IDENTITY(1,1) NOT NULL,
+    first_name VARCHAR(255),
+    last_name  VARCHAR(255),
+    title      VARCHAR(255),
+    user_id    BIGINT,
+    CONSTRAINT pk_contact PRIMARY KEY (id),
+    CONSTRAINT fk_contact_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE email_address (
+    id         BIGINT IDENTITY(1,1) NOT NULL,
+    label      VARCHAR(255),
+    email      VARCHAR(255),
+    contact_id BIGINT,
+    CONSTRAINT pk_email_address PRIMARY KEY (id),
+    CONSTRAINT fk_email_address_contact FOREIGN KEY (contact_id) REFERENCES contact (id)
+);
+
+CREATE TABLE phone_number (
+    id         BIGINT IDENTITY(1,1) NOT NULL,
+    label      VARCHAR(255),
+    number     VARCHAR(255),
+    contact_id BIGINT,
+    CONSTRAINT pk_phone_number PRIMARY KEY (id),
+    CONSTRAINT fk_phone_number_contact FOREIGN KEY (contact_id) REFERENCES contact (id)
+);
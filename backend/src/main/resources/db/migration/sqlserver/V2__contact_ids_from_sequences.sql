@@ -0,0 +1,92 @@
+-- Contact, email and phone ids come from pooled sequences (allocationSize 50), so inserts
+-- can be JDBC-batched. IDENTITY can't be dropped from a column, so each table that still
+-- has it is rebuilt with the same ids; a database that ddl-auto created after the move
+-- already has plain columns and skips that. Each sequence is then (re)created above the
+-- ids in use and above its current value: ddl-auto may have created it at 1, or it may
+-- be missing. Hibernate's pooled optimizer hands out the 50 ids up to each value it
+-- reads, hence the +50. One block, so Flyway sends it as a single statement.
+BEGIN
+    DECLARE @fk SYSNAME;
+    DECLARE @start BIGINT;
+
+    -- Child foreign keys go first, contact can't be dropped while referenced. Databases
+    -- created by ddl-auto have generated constraint names, so look them up.
+    SELECT @fk = name FROM sys.foreign_keys
+    WHERE parent_object_id = OBJECT_ID('email_address') AND referenced_object_id = OBJECT_ID('contact');
+    IF @fk IS NOT NULL EXEC ('ALTER TABLE email_address DROP CONSTRAINT ' + QUOTENAME(@fk));
+    SET @fk = NULL;
+    SELECT @fk = name FROM sys.foreign_keys
+    WHERE parent_object_id = OBJECT_ID('phone_number') AND referenced_object_id = OBJECT_ID('contact');
+    IF @fk IS NOT NULL EXEC ('ALTER TABLE phone_number DROP CONSTRAINT ' + QUOTENAME(@fk));
+
+    IF COLUMNPROPERTY(OBJECT_ID('contact'), 'id', 'IsIdentity') = 1
+    BEGIN
+        EXEC ('CREATE TABLE contact_rebuild (
+                   id         BIGINT NOT NULL,
+                   first_name VARCHAR(255),
+                   last_name  VARCHAR(255),
+                   title      VARCHAR(255),
+                   user_id    BIGINT)');
+        EXEC ('INSERT INTO contact_rebuild (id, first_name, last_name, title, user_id)
+               SELECT id, first_name, last_name, title, user_id FROM contact');
+        EXEC ('DROP TABLE contact');
+        EXEC sp_rename 'contact_rebuild', 'contact';
+        EXEC ('ALTER TABLE contact ADD CONSTRAINT pk_contact PRIMARY KEY (id)');
+        EXEC ('ALTER TABLE contact ADD CONSTRAINT fk_contact_user FOREIGN KEY (user_id) REFERENCES users (id)');
+    END;
+
+    IF COLUMNPROPERTY(OBJECT_ID('email_address'), 'id', 'IsIdentity') = 1
+    BEGIN
+        EXEC ('CREATE TABLE email_address_rebuild (
+                   id         BIGINT NOT NULL,
+                   label      VARCHAR(255),
+                   email      VARCHAR(255),
+                   contact_id BIGINT)');
+        EXEC ('INSERT INTO email_address_rebuild (id, label, email, contact_id)
+               SELECT id, label, email, contact_id FROM email_address');
+        EXEC ('DROP TABLE email_address');
+        EXEC sp_rename 'email_address_rebuild', 'email_address';
+        EXEC ('ALTER TABLE email_address ADD CONSTRAINT pk_email_address PRIMARY KEY (id)');
+    END;
+
+    IF COLUMNPROPERTY(OBJECT_ID('phone_number'), 'id', 'IsIdentity') = 1
+    BEGIN
+        EXEC ('CREATE TABLE phone_number_rebuild (
+                   id         BIGINT NOT NULL,
+                   label      VARCHAR(255),
+                   number     VARCHAR(255),
+                   contact_id BIGINT)');
+        EXEC ('INSERT INTO phone_number_rebuild (id, label, number, contact_id)
+               SELECT id, label, number, contact_id FROM phone_number');
+        EXEC ('DROP TABLE phone_number');
+        EXEC sp_rename 'phone_number_rebuild', 'phone_number';
+        EXEC ('ALTER TABLE phone_number ADD CONSTRAINT pk_phone_number PRIMARY KEY (id)');
+    END;
+
+    EXEC ('ALTER TABLE email_address ADD CONSTRAINT fk_email_address_contact
+               FOREIGN KEY (contact_id) REFERENCES contact (id)');
+    EXEC ('ALTER TABLE phone_number ADD CONSTRAINT fk_phone_number_contact
+               FOREIGN KEY (contact_id) REFERENCES contact (id)');
+
+    -- Dynamic SQL because START WITH only takes a literal
+    SELECT @start = ISNULL(MAX(id), 0) + 50 FROM contact;
+    SELECT @start = CASE WHEN CAST(current_value AS BIGINT) + 50 > @start
+                         THEN CAST(current_value AS BIGINT) + 50 ELSE @start END
+    FROM sys.sequences WHERE name = 'contact_seq';
+    IF OBJECT_ID('contact_seq', 'SO') IS NOT NULL EXEC ('DROP SEQUENCE contact_seq');
+    EXEC ('CREATE SEQUENCE contact_seq START WITH ' + CAST(@start AS VARCHAR(20)) + ' INCREMENT BY 50');
+
+    SELECT @start = ISNULL(MAX(id), 0) + 50 FROM email_address;
+    SELECT @start = CASE WHEN CAST(current_value AS BIGINT) + 50 > @start
+                         THEN CAST(current_value AS BIGINT) + 50 ELSE @start END
+    FROM sys.sequences WHERE name = 'email_address_seq';
+    IF OBJECT_ID('email_address_seq', 'SO') IS NOT NULL EXEC ('DROP SEQUENCE email_address_seq');
+    EXEC ('CREATE SEQUENCE email_address_seq START WITH ' + CAST(@start AS VARCHAR(20)) + ' INCREMENT BY 50');
+
+    SELECT @start = ISNULL(MAX(id), 0) + 50 FROM phone_number;
+    SELECT @start = CASE WHEN CAST(current_value AS BIGINT) + 50 > @start
+                         THEN CAST(current_value AS BIGINT) + 50 ELSE @start END
+    FROM sys.sequences WHERE name = 'phone_number_seq';
+    IF OBJECT_ID('phone_number_seq', 'SO') IS NOT NULL EXEC ('DROP SEQUENCE phone_number_seq');
+    EXEC ('CREATE SEQUENCE phone_number_seq START WITH ' + CAST(@start AS VARCHAR(20)) + ' INCREMENT BY 50');
+END;
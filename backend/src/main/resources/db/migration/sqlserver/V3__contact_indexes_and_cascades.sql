@@ -0,0 +1,32 @@
+-- Indexes for the contact listing: every predicate starts with user_id and every sort
+-- (getContacts sortBy: firstName, lastName, title, id) ends with id as the tie-breaker,
+-- so each keyset or offset page is an index range read in order. The remaining columns
+-- of the dashboard summary are included, so those pages never touch the clustered index.
+CREATE INDEX ix_contact_user_first_name ON contact (user_id, first_name, id) INCLUDE (last_name, title);
+CREATE INDEX ix_contact_user_last_name ON contact (user_id, last_name, id) INCLUDE (first_name, title);
+CREATE INDEX ix_contact_user_title ON contact (user_id, title, id) INCLUDE (first_name, last_name);
+CREATE INDEX ix_contact_user_id ON contact (user_id, id) INCLUDE (first_name, last_name, title);
+
+-- Collection loads (contact_id in ...) and the primary email/phone lookup (min id per contact)
+CREATE INDEX ix_email_address_contact ON email_address (contact_id, id) INCLUDE (label, email);
+CREATE INDEX ix_phone_number_contact ON phone_number (contact_id, id) INCLUDE (label, number);
+
+-- Child rows go with their contact. Databases created by ddl-auto have generated
+-- constraint names, so look the old constraints up instead of naming them. One block,
+-- so Flyway sends it as a single statement and @fk stays in scope.
+BEGIN
+    DECLARE @fk SYSNAME;
+
+    SELECT @fk = name FROM sys.foreign_keys
+    WHERE parent_object_id = OBJECT_ID('email_address') AND referenced_object_id = OBJECT_ID('contact');
+    IF @fk IS NOT NULL EXEC ('ALTER TABLE email_address DROP CONSTRAINT ' + QUOTENAME(@fk));
+    ALTER TABLE email_address ADD CONSTRAINT fk_email_address_contact
+        FOREIGN KEY (contact_id) REFERENCES contact (id) ON DELETE CASCADE;
+
+    SET @fk = NULL;
+    SELECT @fk = name FROM sys.foreign_keys
+    WHERE parent_object_id = OBJECT_ID('phone_number') AND referenced_object_id = OBJECT_ID('contact');
+    IF @fk IS NOT NULL EXEC ('ALTER TABLE phone_number DROP CONSTRAINT ' + QUOTENAME(@fk));
+    ALTER TABLE phone_number ADD CONSTRAINT fk_phone_number_contact
+        FOREIGN KEY (contact_id) REFERENCES contact (id) ON DELETE CASCADE;
+END;
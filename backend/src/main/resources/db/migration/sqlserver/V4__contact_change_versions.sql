@@ -0,0 +1,28 @@
+-- Change versions for incremental sync (GET /api/contacts/changes). Every insert or
+-- update of a contact, or of one of its emails or phone numbers, stamps the contact with
+-- a new version; deletions leave a tombstone carrying the version of the delete.
+
+ALTER TABLE contact ADD change_version BIGINT NOT NULL
+    CONSTRAINT df_contact_change_version DEFAULT 0;
+
+-- Existing rows get distinct versions (their ids) so the first sync can page through them
+-- by version, and the sequence starts above them. Dynamic SQL because START WITH only
+-- takes a literal; one block so Flyway sends it as a single statement.
+BEGIN
+    DECLARE @start BIGINT;
+
+    EXEC ('UPDATE contact SET change_version = id');
+    SELECT @start = ISNULL(MAX(id), 0) + 1 FROM contact;
+    EXEC ('CREATE SEQUENCE change_version_seq START WITH ' + CAST(@start AS VARCHAR(20)) + ' INCREMENT BY 50');
+END;
+
+CREATE INDEX ix_contact_user_change_version ON contact (user_id, change_version);
+
+CREATE TABLE contact_tombstone (
+    contact_id     BIGINT NOT NULL,
+    user_id        BIGINT NOT NULL,
+    change_version BIGINT NOT NULL,
+    CONSTRAINT pk_contact_tombstone PRIMARY KEY (contact_id)
+);
+
+CREATE INDEX ix_contact_tombstone_user_change_version ON contact_tombstone (user_id, change_version);
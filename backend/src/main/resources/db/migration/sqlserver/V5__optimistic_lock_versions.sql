@@ -0,0 +1,4 @@
+-- JPA @Version columns for contact and users: optimistic locking, and the strong ETags of
+-- GET /api/contacts/{id} and GET /api/users/profile.
+ALTER TABLE contact ADD version BIGINT NOT NULL CONSTRAINT df_contact_version DEFAULT 0;
+ALTER TABLE users ADD version BIGINT NOT NULL CONSTRAINT df_users_version DEFAULT 0;
@@ -2,8 +2,11 @@ package com.example.contactmanager;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+// Embedded database, with a small seed so the seeding path is exercised too
+@SpringBootTest(properties = {"seed.users=2", "seed.contacts-per-user=20"})
+@ActiveProfiles("local")
 class ContactmanagerApplicationTests {
 
 	@Test
@@ -0,0 +1,77 @@
+package com.example.contactmanager.repository;
+
+import com.example.contactmanager.model.Contact;
+import com.example.contactmanager.model.EmailAddress;
+import com.example.contactmanager.model.PhoneNumber;
+import com.example.contactmanager.model.User;
+import com.example.contactmanager.sync.ChangeVersionGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A deleted contact must not come back from the second-level cache. Every repository call
+ * runs in its own transaction, so only the cache carries the contact from one to the next.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(ChangeVersionGenerator.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ContactDeleteCacheTests {
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+    private Long contactId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User("Owner", UUID.randomUUID() + "@example.com", "secret"));
+        Contact contact = new Contact();
+        contact.setFirstName("Ada");
+        contact.setUser(owner);
+
+        EmailAddress email = new EmailAddress();
+        email.setEmail("ada@example.com");
+        contact.addEmail(email);
+
+        PhoneNumber phone = new PhoneNumber();
+        phone.setNumber("555-0100");
+        contact.addPhoneNumber(phone);
+
+        userId = owner.getId();
+        contactId = contactRepository.save(contact).getId();
+    }
+
+    @Test
+    void deletedContactIsNotServedFromTheCache() {
+        // Warm the cache: the contact and both collections
+        assertThat(contactRepository.findByIdAndUserId(contactId, userId)).isPresent();
+        assertThat(contactRepository.isCachedWithDetails(contactId)).isTrue();
+
+        assertThat(contactRepository.deleteOwned(contactId, userId)).isTrue();
+
+        assertThat(contactRepository.isCachedWithDetails(contactId)).isFalse();
+        assertThat(contactRepository.findByIdAndUserId(contactId, userId)).isEmpty();
+        assertThat(contactRepository.findVersionByIdAndUserId(contactId, userId)).isEmpty();
+    }
+
+    @Test
+    void deleteIsScopedToTheOwner() {
+        User other = userRepository.save(new User("Other", UUID.randomUUID() + "@example.com", "secret"));
+
+        assertThat(contactRepository.deleteOwned(contactId, other.getId())).isFalse();
+        assertThat(contactRepository.findByIdAndUserId(contactId, userId)).isPresent();
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.contactmanager.repository;
+
+import com.example.contactmanager.model.Contact;
+import com.example.contactmanager.model.EmailAddress;
+import com.example.contactmanager.model.PhoneNumber;
+import com.example.contactmanager.model.User;
+import com.example.contactmanager.sync.ChangeVersionGenerator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the SQL Hibernate generates for the hot repository methods through H2's EXPLAIN
+ * against the Flyway-managed schema and checks each is answered from the intended index
+ * instead of a table scan. Statements are captured with a statement inspector, the hook
+ * SqlStatementCounter uses in the app, and their parameters bound as literals in order.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.contactmanager.repository.ContactIndexPlanTests$CapturingInspector"
+})
+@Import(ChangeVersionGenerator.class)
+class ContactIndexPlanTests {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ContactTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long userId;
+    private final List<Long> contactIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User owner = entityManager.persist(new User("Owner", "owner@example.com", "secret"));
+        for (int i = 0; i < 20; i++) {
+            Contact contact = new Contact();
+            contact.setFirstName("First" + i);
+            contact.setLastName("Last" + i);
+            contact.setTitle("Title" + i);
+            contact.setUser(owner);
+
+            EmailAddress email = new EmailAddress();
+            email.setEmail("c" + i + "@example.com");
+            contact.addEmail(email);
+
+            PhoneNumber phone = new PhoneNumber();
+            phone.setNumber("555-01" + i);
+            contact.addPhoneNumber(phone);
+
+            contactIds.add(entityManager.persist(contact).getId());
+        }
+        entityManager.flush();
+        userId = owner.getId();
+    }
+
+    // Second offset page for each sortBy accepted by getContacts; offset and limit are both PAGE_SIZE
+    @ParameterizedTest
+    @CsvSource({
+            "firstName, IX_CONTACT_USER_FIRST_NAME",
+            "lastName, IX_CONTACT_USER_LAST_NAME",
+            "title, IX_CONTACT_USER_TITLE",
+            "id, IX_CONTACT_USER_ID"
+    })
+    void idPageUsesTheIndexOfItsSortKey(String sortBy, String index) {
+        String sql = firstStatementOf(() ->
+                contactRepository.findIdsByUserId(userId, PageRequest.of(1, PAGE_SIZE, Sort.by(sortBy))));
+
+        assertThat(explain(sql, userId, PAGE_SIZE, PAGE_SIZE)).contains(index).doesNotContain("tableScan");
+    }
+
+    // Keyset slice after a cursor: the OR seek predicate must not push the plan off the sort index
+    @ParameterizedTest
+    @CsvSource({
+            "firstName, false, IX_CONTACT_USER_FIRST_NAME",
+            "firstName, true, IX_CONTACT_USER_FIRST_NAME",
+            "lastName, false, IX_CONTACT_USER_LAST_NAME",
+            "title, true, IX_CONTACT_USER_TITLE",
+            "id, false, IX_CONTACT_USER_ID",
+            "id, true, IX_CONTACT_USER_ID"
+    })
+    void keysetSliceUsesTheIndexOfItsSortKey(String sortBy, boolean descending, String index) {
+        Long lastId = contactIds.get(5);
+        ContactCursor cursor = ContactCursor.after(entityManager.find(Contact.class, lastId), sortBy, descending);
+        String sql = firstStatementOf(() ->
+                contactRepository.findIdSliceByUserId(userId, sortBy, descending, cursor, PAGE_SIZE));
+
+        // One extra row is fetched to tell whether a next slice exists
+        Object[] parameters = sortBy.equals("id")
+                ? new Object[]{userId, lastId, PAGE_SIZE + 1}
+                : new Object[]{userId, cursor.value(), cursor.value(), lastId, PAGE_SIZE + 1};
+        assertThat(explain(sql, parameters)).contains(index).doesNotContain("tableScan");
+    }
+
+    // Summary projection: the first email and phone are picked by min(id) subqueries per contact
+    @Test
+    void summaryPageUsesTheSortIndexAndTheChildIndexes() {
+        String sql = firstStatementOf(() ->
+                contactRepository.findSummariesByUserId(userId, PageRequest.of(1, PAGE_SIZE, Sort.by("firstName"))));
+
+        assertThat(explain(sql, userId, PAGE_SIZE, PAGE_SIZE))
+                .contains("IX_CONTACT_USER_FIRST_NAME", "IX_EMAIL_ADDRESS_CONTACT", "IX_PHONE_NUMBER_CONTACT")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void childCollectionsAreLoadedByContactIndex() {
+        List<Long> ids = contactIds.subList(0, 2);
+
+        String emails = firstStatementOf(() -> contactRepository.findWithEmailsByIdIn(ids));
+        assertThat(explain(emails, ids.get(0), ids.get(1)))
+                .contains("IX_EMAIL_ADDRESS_CONTACT").doesNotContain("tableScan");
+
+        String phones = firstStatementOf(() -> contactRepository.findWithPhoneNumbersByIdIn(ids));
+        assertThat(explain(phones, ids.get(0), ids.get(1)))
+                .contains("IX_PHONE_NUMBER_CONTACT").doesNotContain("tableScan");
+    }
+
+    // Incremental sync window, as ContactSyncService reads it: (since, upTo] plus one row
+    @Test
+    void changeScansUseTheChangeVersionIndexes() {
+        PageRequest window = PageRequest.of(0, PAGE_SIZE + 1);
+
+        String contacts = firstStatementOf(() -> contactRepository.findChangesByUserId(userId, 0, 1_000_000, window));
+        assertThat(explain(contacts, userId, 0, 1_000_000, PAGE_SIZE + 1))
+                .contains("IX_CONTACT_USER_CHANGE_VERSION").doesNotContain("tableScan");
+
+        String tombstones = firstStatementOf(() -> tombstoneRepository.findChangesByUserId(userId, 0, 1_000_000, window));
+        assertThat(explain(tombstones, userId, 0, 1_000_000, PAGE_SIZE + 1))
+                .contains("IX_CONTACT_TOMBSTONE_USER_CHANGE_VERSION").doesNotContain("tableScan");
+    }
+
+    private static String firstStatementOf(Runnable call) {
+        CapturingInspector.STATEMENTS.clear();
+        call.run();
+        assertThat(CapturingInspector.STATEMENTS).as("statements executed").isNotEmpty();
+        return CapturingInspector.STATEMENTS.get(0);
+    }
+
+    // Binds the statement's ? placeholders in order; a count mismatch means the SQL shape changed
+    private String explain(String sql, Object... parameters) {
+        StringBuilder bound = new StringBuilder("explain ");
+        int next = 0;
+        for (char ch : sql.toCharArray()) {
+            if (ch != '?') {
+                bound.append(ch);
+                continue;
+            }
+            assertThat(next).as("parameters of %s", sql).isLessThan(parameters.length);
+            Object value = parameters[next++];
+            bound.append(value instanceof String text ? "'" + text.replace("'", "''") + "'" : value);
+        }
+        assertThat(next).as("parameters of %s", sql).isEqualTo(parameters.length);
+
+        return entityManager.getEntityManager().createNativeQuery(bound.toString()).getSingleResult().toString();
+    }
+
+    /**
+     * Remembers the SQL of every statement Hibernate prepares.
+     */
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
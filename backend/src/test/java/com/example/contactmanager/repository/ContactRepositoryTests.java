@@ -0,0 +1,160 @@
+package com.example.contactmanager.repository;
+
+import com.example.contactmanager.dto.ContactSummary;
+import com.example.contactmanager.model.Contact;
+import com.example.contactmanager.model.EmailAddress;
+import com.example.contactmanager.model.PhoneNumber;
+import com.example.contactmanager.model.User;
+import com.example.contactmanager.sync.ChangeRef;
+import com.example.contactmanager.sync.ChangeVersionGenerator;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ChangeVersionGenerator.class)
+class ContactRepositoryTests {
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = entityManager.persist(new User("Owner", "owner@example.com", "secret"));
+        User other = entityManager.persist(new User("Other", "other@example.com", "secret"));
+        persistContacts(owner, 25);
+        persistContacts(other, 25);
+        entityManager.flush();
+        entityManager.clear();
+
+        userId = owner.getId();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pageLoadsOnlyItsOwnRowsWithChildCollections() {
+        Page<Contact> page = contactRepository.findPageByUserId(userId, PageRequest.of(1, 10, Sort.by("firstName")));
+
+        assertThat(page.getTotalElements()).isEqualTo(25);
+        assertThat(page.getContent()).extracting(Contact::getFirstName)
+                .containsExactly("Contact10", "Contact11", "Contact12", "Contact13", "Contact14",
+                        "Contact15", "Contact16", "Contact17", "Contact18", "Contact19");
+        assertThat(page.getContent()).allSatisfy(contact -> {
+            assertThat(contact.getEmails()).hasSize(3);
+            assertThat(contact.getPhoneNumbers()).hasSize(3);
+        });
+
+        // Page of ids, count, emails, phone numbers
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(statistics.getEntityStatistics(Contact.class.getName()).getLoadCount()).isEqualTo(10);
+    }
+
+    @Test
+    void sliceSkipsTheCountQuery() {
+        Slice<Contact> slice = contactRepository.findSliceByUserId(userId, "firstName", false, null, 10);
+
+        assertThat(slice.getContent()).hasSize(10);
+        assertThat(slice.hasNext()).isTrue();
+
+        // Slice of ids, emails, phone numbers
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityStatistics(Contact.class.getName()).getLoadCount()).isEqualTo(10);
+    }
+
+    @Test
+    void summaryPageIsOneProjectionQueryWithThePrimaryEmailAndPhone() {
+        Page<ContactSummary> page = contactRepository.findSummariesByUserId(userId, PageRequest.of(0, 10, Sort.by("firstName")));
+
+        assertThat(page.getTotalElements()).isEqualTo(25);
+        assertThat(page.getContent()).hasSize(10);
+        ContactSummary first = page.getContent().get(0);
+        assertThat(first.firstName()).isEqualTo("Contact00");
+        assertThat(first.email()).isEqualTo("c0.0@owner.example.com");
+        assertThat(first.phoneNumber()).isEqualTo("555-0100");
+
+        // Page of rows, count; no entity is ever loaded
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void changesAreReturnedInVersionOrderAndAChildEditMovesTheContactToTheEnd() {
+        List<ChangeRef> changes = contactRepository.findChangesByUserId(userId, -1, Long.MAX_VALUE, PageRequest.of(0, 100));
+
+        assertThat(changes).hasSize(25);
+        assertThat(changes).extracting(ChangeRef::changeVersion).isSorted().doesNotHaveDuplicates();
+
+        // Only an email changes; the contact still gets a new, highest version
+        Contact first = contactRepository.findByIdAndUserId(changes.get(0).contactId(), userId).orElseThrow();
+        first.getEmails().iterator().next().setEmail("changed@example.com");
+        first.touch();
+        contactRepository.saveAndFlush(first);
+
+        List<ChangeRef> after = contactRepository.findChangesByUserId(userId, changes.get(24).changeVersion(),
+                Long.MAX_VALUE, PageRequest.of(0, 100));
+        assertThat(after).extracting(ChangeRef::contactId).containsExactly(first.getId());
+    }
+
+    @Test
+    void listVersionMovesOnEveryUpdateAndDelete() {
+        ContactListVersion initial = contactRepository.findListVersionByUserId(userId);
+        assertThat(initial.count()).isEqualTo(25);
+
+        Contact contact = contactRepository.findSliceByUserId(userId, "id", false, null, 1).getContent().get(0);
+        contact.setTitle("Changed");
+        contact.touch();
+        contact = contactRepository.saveAndFlush(contact);
+        ContactListVersion updated = contactRepository.findListVersionByUserId(userId);
+        assertThat(updated.count()).isEqualTo(25);
+        assertThat(updated.lastChange()).isGreaterThan(initial.lastChange());
+        assertThat(contactRepository.findVersionByIdAndUserId(contact.getId(), userId)).contains(1L);
+
+        contactRepository.deleteOwned(contact.getId(), userId);
+        contactRepository.flush();
+        assertThat(contactRepository.findListVersionByUserId(userId))
+                .isNotEqualTo(updated)
+                .extracting(ContactListVersion::count).isEqualTo(24L);
+    }
+
+    private void persistContacts(User user, int count) {
+        for (int i = 0; i < count; i++) {
+            Contact contact = new Contact();
+            contact.setFirstName(String.format("Contact%02d", i));
+            contact.setUser(user);
+            for (int j = 0; j < 3; j++) {
+                EmailAddress email = new EmailAddress();
+                email.setEmail("c" + i + "." + j + "@" + user.getEmail().substring(0, 5) + ".example.com");
+                contact.addEmail(email);
+
+                PhoneNumber phone = new PhoneNumber();
+                phone.setNumber("555-01" + i + j);
+                contact.addPhoneNumber(phone);
+            }
+            entityManager.persist(contact);
+        }
+    }
+}
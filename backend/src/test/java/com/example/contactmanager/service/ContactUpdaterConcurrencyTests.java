@@ -0,0 +1,156 @@
+package com.example.contactmanager.service;
+
+import com.example.contactmanager.dto.ContactRequest;
+import com.example.contactmanager.model.Contact;
+import com.example.contactmanager.model.User;
+import com.example.contactmanager.repository.ContactRepository;
+import com.example.contactmanager.repository.UserRepository;
+import com.example.contactmanager.web.ETags;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many threads updating the same contact at once, against the embedded database. Every
+ * update that reports success must be visible in the final state and version, and no
+ * attempt may fail with anything but a conflict outcome (a deadlock would surface as an
+ * exception). Run with a SQL Server datasource to check that database's locking too.
+ */
+@SpringBootTest(properties = {"seed.users=0", "contacts.update.max-attempts=10"})
+@ActiveProfiles("local")
+class ContactUpdaterConcurrencyTests {
+
+    private static final int ROUNDS = 40;
+
+    @Autowired
+    private ContactUpdater contactUpdater;
+
+    @Autowired
+    private ContactMerger contactMerger;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+    private Long contactId;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(new User("Owner", UUID.randomUUID() + "@example.com", "secret"));
+        Contact contact = new Contact();
+        contact.setUser(user);
+        contactMerger.apply(contact, new ContactRequest("First", "Last", "Title", List.of(), List.of()), false);
+        userId = user.getId();
+        contactId = contactRepository.save(contact).getId();
+    }
+
+    @Test
+    void editsOfDifferentFieldsAreAllKept() throws Exception {
+        List<IntFunction<ContactRequest>> writers = List.of(
+                i -> new ContactRequest("first-" + i, null, null, null, null),
+                i -> new ContactRequest(null, "last-" + i, null, null, null),
+                i -> new ContactRequest(null, null, "title-" + i, null, null));
+        Map<Integer, Integer> lastApplied = new ConcurrentHashMap<>();
+        AtomicInteger updated = new AtomicInteger();
+
+        runConcurrently(writers.size(), writer -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                UpdateResult result = contactUpdater.update(contactId, userId, writers.get(writer).apply(i), true, null);
+                assertThat(result.status()).isIn(UpdateResult.Status.UPDATED, UpdateResult.Status.CONFLICT);
+                if (result.status() == UpdateResult.Status.UPDATED) {
+                    lastApplied.put(writer, i);
+                    updated.incrementAndGet();
+                }
+            }
+        });
+
+        Contact contact = contactRepository.findByIdAndUserId(contactId, userId).orElseThrow();
+        assertThat(lastApplied).hasSize(3);
+        assertThat(contact.getFirstName()).isEqualTo("first-" + lastApplied.get(0));
+        assertThat(contact.getLastName()).isEqualTo("last-" + lastApplied.get(1));
+        assertThat(contact.getTitle()).isEqualTo("title-" + lastApplied.get(2));
+        // Each successful update wrote exactly one new version
+        assertThat(contact.getVersion()).isEqualTo(updated.get());
+    }
+
+    @Test
+    void conditionalEditsOfTheSameFieldNeverOverwriteEachOther() throws Exception {
+        // Title written by each successful update, keyed by the version its If-Match named
+        Map<Long, String> writtenOnVersion = new ConcurrentHashMap<>();
+
+        runConcurrently(8, writer -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                long version = contactRepository.findVersionByIdAndUserId(contactId, userId).orElseThrow();
+                String title = "title-" + writer + "-" + i;
+                UpdateResult result = contactUpdater.update(contactId, userId,
+                        new ContactRequest(null, null, title, null, null), true,
+                        ETags.of(contactId, version));
+                assertThat(result.status()).isIn(UpdateResult.Status.UPDATED,
+                        UpdateResult.Status.PRECONDITION_FAILED, UpdateResult.Status.CONFLICT);
+                if (result.status() == UpdateResult.Status.UPDATED) {
+                    // Two successes on the same version means one replaced the other unseen
+                    assertThat(writtenOnVersion.putIfAbsent(version, title)).isNull();
+                }
+            }
+        });
+
+        // The successes form one chain, each based on the version the previous one wrote,
+        // and the final state is the last link's
+        int successes = writtenOnVersion.size();
+        assertThat(successes).isPositive();
+        assertThat(writtenOnVersion.keySet())
+                .containsExactlyInAnyOrderElementsOf(LongStream.range(0, successes).boxed().toList());
+        Contact contact = contactRepository.findByIdAndUserId(contactId, userId).orElseThrow();
+        assertThat(contact.getVersion()).isEqualTo(successes);
+        assertThat(contact.getTitle()).isEqualTo(writtenOnVersion.get((long) successes - 1));
+    }
+
+    private static void runConcurrently(int threads, ThrowingConsumer task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int writer = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.accept(writer);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                // Rethrows assertion failures and unexpected exceptions from the workers
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingConsumer {
+        void accept(int writer) throws Exception;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.contactmanager.sync;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The sync cursor bound: a version that is still uncommitted, or not yet handed out when
+ * a reader capped its range, must never fall at or below {@link ChangeVersionGenerator#safeVersion()}.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(ChangeVersionGenerator.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChangeVersionGeneratorTests {
+
+    @Autowired
+    private ChangeVersionGenerator generator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void aLaterCommitIsNotSafeWhileAnEarlierVersionIsStillOpen() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+
+        // A reader caps its range before either writer takes a version
+        long cap = generator.safeVersion();
+
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<Long> open = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            long version = generator.next();
+            taken.countDown();
+            await(finish);
+            return version;
+        }));
+        assertThat(taken.await(10, TimeUnit.SECONDS)).isTrue();
+
+        long committed = transaction.execute(status -> generator.next());
+
+        // Neither version falls inside the range read with the earlier cap...
+        assertThat(cap).isLessThan(committed);
+        // ...and while the first writer is open, the later commit is not safe either
+        long safe = generator.safeVersion();
+        assertThat(safe).isLessThan(committed);
+
+        finish.countDown();
+        long first = open.get(10, TimeUnit.SECONDS);
+        assertThat(cap).isLessThan(first);
+        assertThat(safe).isLessThan(first);
+        assertThat(first).isLessThan(committed);
+
+        // Both done: everything handed out so far is safe
+        assertThat(generator.safeVersion()).isEqualTo(committed);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
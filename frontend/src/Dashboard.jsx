@@ -1,7 +1,20 @@
 
 import './Dashboard.css';
 import { useNavigate } from "react-router-dom";
-import React, { useState, useEffect } from "react";
+import React, { useState, useEffect, useRef } from "react";
+import { subscribeToContactChanges } from "./contactStream";
+
+// List rows come from the summary view (flat primary email/phone fields); search results
+// are full contacts, where the first entry of each list is the primary one.
+const primaryEmail = (contact) =>
+  contact.email
+    ? { label: contact.emailLabel, email: contact.email }
+    : (Array.isArray(contact.emails) && contact.emails[0]) || null;
+
+const primaryPhone = (contact) =>
+  contact.phoneNumber
+    ? { label: contact.phoneLabel, number: contact.phoneNumber }
+    : (Array.isArray(contact.phoneNumbers) && contact.phoneNumbers[0]) || null;
 
 function Dashboard() {
   const navigate = useNavigate();
@@ -35,31 +48,78 @@ function Dashboard() {
     fetchContacts();
   }, [navigate]);
 
-  // Filter contacts whenever searchTerm changes
+  // The page currently shown, for stream events that need a refetch
+  const paginationRef = useRef(pagination);
+  paginationRef.current = pagination;
+
+  // Apply changes made in this and other sessions as they are pushed, instead of re-polling
+  useEffect(() => {
+    const token = localStorage.getItem('token');
+    if (!token) return;
+
+    const replace = (list, contact) => list.map((c) => (c.id === contact.id ? contact : c));
+    const remove = (list, id) => list.filter((c) => c.id !== id);
+
+    return subscribeToContactChanges(token, (type, event) => {
+      switch (type) {
+        case 'updated':
+          setContacts((list) => replace(list, event.contact));
+          setFilteredContacts((list) => replace(list, event.contact));
+          break;
+        case 'deleted':
+          setContacts((list) => remove(list, event.contactId));
+          setFilteredContacts((list) => remove(list, event.contactId));
+          break;
+        case 'created':
+        case 'resync':
+          // Where a new contact lands depends on the sort, so reload the page being viewed
+          fetchContacts(paginationRef.current.currentPage, paginationRef.current.size);
+          break;
+        default:
+          break;
+      }
+    });
+  }, []);
+
+  // Search server-side whenever searchTerm changes, so matches on other pages are found too
   useEffect(() => {
     if (searchTerm.trim() === "") {
       setFilteredContacts(contacts);
-    } else {
-      const filtered = contacts.filter((contact) => {
-        const searchLower = searchTerm.toLowerCase();
-        
-        const fullName = `${contact.firstName || ""} ${contact.lastName || ""}`.toLowerCase();
-        if (fullName.includes(searchLower)) return true;
-        
-        if (contact.title && contact.title.toLowerCase().includes(searchLower)) return true;
-        
-        if (contact.emails && contact.emails.some(email => 
-          email.email && email.email.toLowerCase().includes(searchLower)
-        )) return true;
-        
-        if (contact.phoneNumbers && contact.phoneNumbers.some(phone => 
-          phone.number && phone.number.includes(searchTerm)
-        )) return true;
-        
-        return false;
-      });
-      setFilteredContacts(filtered);
+      return;
     }
+
+    const token = localStorage.getItem('token');
+    const controller = new AbortController();
+    const timer = setTimeout(async () => {
+      try {
+        const res = await fetch(
+          `http://localhost:8080/api/contacts/search?q=${encodeURIComponent(searchTerm.trim())}`,
+          {
+            headers: {
+              Authorization: `Bearer ${token}`,
+            },
+            signal: controller.signal,
+          }
+        );
+
+        if (!res.ok) {
+          const body = await res.text().catch(() => '');
+          throw new Error(`Failed to search contacts: ${res.status} ${res.statusText} | ${body}`);
+        }
+
+        const data = await res.json();
+        setFilteredContacts(Array.isArray(data.contacts) ? data.contacts : []);
+      } catch (err) {
+        if (err.name !== 'AbortError') {
+          console.error('Error searching contacts:', err);
+        }
+      }
+    }, 250);
+
+    return () => {
+      clearTimeout(timer);
+      controller.abort();
+    };
   }, [searchTerm, contacts]);
 
   const fetchContacts = async (page = 0, size = 10) => {
@@ -68,7 +128,7 @@ function Dashboard() {
     
     try {
       const res = await fetch(
-        `http://localhost:8080/api/users/contacts?page=${page}&size=${size}&sortBy=firstName&sortDir=asc`, 
+        `http://localhost:8080/api/users/contacts?page=${page}&size=${size}&sortBy=firstName&sortDir=asc&view=summary`, 
         {
           headers: {
             Authorization: `Bearer ${token}`,
@@ -123,8 +183,9 @@ function Dashboard() {
 
       if (response.ok) {
         alert('Contact deleted successfully!');
-        // Refresh current page
-        fetchContacts(pagination.currentPage, pagination.size);
+        // Drop the row locally; the change stream tells other sessions
+        setContacts((list) => list.filter((c) => c.id !== contactId));
+        setFilteredContacts((list) => list.filter((c) => c.id !== contactId));
       } else {
         const errorText = await response.text();
         alert(`Failed to delete contact: ${errorText}`);
@@ -224,7 +285,7 @@ function Dashboard() {
         {searchTerm && (
           <div className="search-info">
             <p>
-              Showing {filteredContacts.length} of {contacts.length} contacts for "{searchTerm}"
+              Found {filteredContacts.length} contacts for "{searchTerm}"
             </p>
           </div>
         )}
@@ -245,22 +306,18 @@ function Dashboard() {
                     {contact.title && <span className="contact-title">{contact.title}</span>}
                   </h3>
                   <div className="contact-details">
-                    {Array.isArray(contact.phoneNumbers) && contact.phoneNumbers.length > 0 ? (
-                      contact.phoneNumbers.map((pn) => (
-                        <div key={pn.id} className="contact-detail">
-                          <strong>{pn.label || 'Phone'}:</strong> {pn.number}
-                        </div>
-                      ))
+                    {primaryPhone(contact) ? (
+                      <div className="contact-detail">
+                        <strong>{primaryPhone(contact).label || 'Phone'}:</strong> {primaryPhone(contact).number}
+                      </div>
                     ) : (
                       <div className="contact-detail">No phone numbers</div>
                     )}
 
-                    {Array.isArray(contact.emails) && contact.emails.length > 0 ? (
-                      contact.emails.map((em) => (
-                        <div key={em.id} className="contact-detail">
-                          <strong>{em.label || 'Email'}:</strong> {em.email}
-                        </div>
-                      ))
+                    {primaryEmail(contact) ? (
+                      <div className="contact-detail">
+                        <strong>{primaryEmail(contact).label || 'Email'}:</strong> {primaryEmail(contact).email}
+                      </div>
                     ) : (
                       <div className="contact-detail">No emails</div>
                     )}
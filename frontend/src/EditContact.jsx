@@ -11,6 +11,33 @@ function EditContact() {
   const [name, setName] = useState({ firstName: "", secondName: "" });
   const [title, setTitle] = useState("");
   const [loading, setLoading] = useState(true);
+  // Version the form was loaded from; sent back as If-Match so a stale form can't overwrite newer edits
+  const [etag, setEtag] = useState(null);
+
+  const populate = (contact) => {
+    setName({
+      firstName: contact.firstName || "",
+      secondName: contact.lastName || ""
+    });
+    setTitle(contact.title || "");
+
+    // Keep ids so the server can update rows in place
+    if (contact.emails && contact.emails.length > 0) {
+      setEmails(contact.emails.map(email => ({
+        id: email.id,
+        label: email.label || "work",
+        email: email.email || ""
+      })));
+    }
+
+    if (contact.phoneNumbers && contact.phoneNumbers.length > 0) {
+      setPhoneNumbers(contact.phoneNumbers.map(phone => ({
+        id: phone.id,
+        label: phone.label || "work",
+        number: phone.number || ""
+      })));
+    }
+  };
 
   // Load contact data when component mounts
   useEffect(() => {
@@ -31,30 +58,8 @@ function EditContact() {
         });
 
         if (response.ok) {
-          const contact = await response.json();
-          
-          // Populate form with existing data
-          setName({ 
-            firstName: contact.firstName || "", 
-            secondName: contact.lastName || "" 
-          });
-          setTitle(contact.title || "");
-          
-          // Set emails (convert from Set to Array if needed)
-          if (contact.emails && contact.emails.length > 0) {
-            setEmails(contact.emails.map(email => ({
-              label: email.label || "work",
-              email: email.email || ""
-            })));
-          }
-          
-          // Set phone numbers
-          if (contact.phoneNumbers && contact.phoneNumbers.length > 0) {
-            setPhoneNumbers(contact.phoneNumbers.map(phone => ({
-              label: phone.label || "work",
-              number: phone.number || ""
-            })));
-          }
+          setEtag(response.headers.get('ETag'));
+          populate(await response.json());
         } else {
           alert("Failed to load contact data");
           navigate('/dashboard');
@@ -132,7 +137,8 @@ function EditContact() {
         method: "PUT", // Using PUT for update
         headers: {
             "Content-Type": "application/json",
-            "Authorization": `Bearer ${token}`
+            "Authorization": `Bearer ${token}`,
+            ...(etag ? { "If-Match": etag } : {})
         },
         body: JSON.stringify(contactData)
         });
@@ -140,6 +146,11 @@ function EditContact() {
         if (response.ok) {
         alert("Contact updated successfully!");
         navigate('/dashboard'); // Go back to dashboard
+        } else if (response.status === 412 || response.status === 409) {
+        // Changed elsewhere since this form was loaded; the body is the current contact
+        setEtag(response.headers.get('ETag'));
+        populate(await response.json());
+        alert("This contact was changed elsewhere. The form now shows the latest version; please re-apply your edits.");
         } else {
         const errorText = await response.text();
         alert(`Failed to update contact: ${errorText}`);
@@ -0,0 +1,62 @@
+// Subscribes to GET /api/contacts/stream. EventSource can't send the Authorization
+// header, so the stream is read with fetch and parsed here. Reconnects with backoff
+// until the returned function is called.
+export function subscribeToContactChanges(token, onEvent) {
+  const controller = new AbortController();
+  let retryDelay = 1000;
+
+  const dispatch = (block) => {
+    let name = 'message';
+    const data = [];
+    for (const line of block.split('\n')) {
+      if (line.startsWith('event:')) {
+        name = line.slice(6).trim();
+      } else if (line.startsWith('data:')) {
+        data.push(line.slice(5).trimStart());
+      }
+    }
+    // Heartbeats are comment-only blocks and carry no data
+    if (data.length > 0) {
+      onEvent(name, JSON.parse(data.join('\n')));
+    }
+  };
+
+  const connect = async () => {
+    try {
+      const res = await fetch('http://localhost:8080/api/contacts/stream', {
+        headers: { Authorization: `Bearer ${token}`, Accept: 'text/event-stream' },
+        signal: controller.signal,
+      });
+      if (!res.ok) {
+        throw new Error(`Contact stream failed: ${res.status}`);
+      }
+      retryDelay = 1000;
+
+      const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += value.replace(/\r/g, '');
+        let end;
+        while ((end = buffer.indexOf('\n\n')) >= 0) {
+          dispatch(buffer.slice(0, end));
+          buffer = buffer.slice(end + 2);
+        }
+      }
+    } catch (err) {
+      if (err.name === 'AbortError') return;
+      console.error('Contact stream error:', err);
+    }
+
+    if (!controller.signal.aborted) {
+      // Whatever happened while disconnected is unknown, so catch up first
+      onEvent('resync', {});
+      setTimeout(connect, retryDelay);
+      retryDelay = Math.min(retryDelay * 2, 30000);
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+}